@@ -0,0 +1,85 @@
+package model;
+
+import headless.ScalingSuite;
+import headless.Scenes;
+import model.broadphase.BroadPhase;
+import model.broadphase.DynamicAabbTree;
+import model.broadphase.SpatialHashGrid;
+import model.broadphase.SweepAndPrune;
+import model.helpers.PairBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One broadphase update and pair query after every body moved a little, as in a step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BroadPhaseBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int entities;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double circles;
+
+    @Param({"SweepAndPrune", "SpatialHashGrid", "DynamicAabbTree"})
+    public String broadPhaseType;
+
+    private ArrayList<Entity> scene;
+    private BroadPhase broadPhase;
+    private PairBuffer pairs;
+    private double offset;
+
+    @Setup
+    public void setUp() {
+        scene = Scenes.scatter(entities, circles, StepBenchmark.SPACING, ScalingSuite.SEED);
+        switch (broadPhaseType) {
+            case "SpatialHashGrid":
+                broadPhase = new SpatialHashGrid();
+                break;
+            case "DynamicAabbTree":
+                broadPhase = new DynamicAabbTree();
+                break;
+            default:
+                broadPhase = new SweepAndPrune();
+        }
+        for (Entity entity : scene) {
+            broadPhase.add(entity);
+        }
+        broadPhase.update();
+        pairs = new PairBuffer();
+        offset = 0.5;
+    }
+
+    @Benchmark
+    public PairBuffer updateAndQuery() {
+        // bodies drift back and forth so incremental broadphases have real work to do
+        offset = -offset;
+        for (int i = 1; i < scene.size(); i++) {
+            Entity entity = scene.get(i);
+            entity.setPosition(entity.getPositionX() + offset, entity.getPositionY() + offset);
+        }
+        broadPhase.update();
+        pairs.clear();
+        broadPhase.queryPairs(pairs);
+        return pairs;
+    }
+
+}
@@ -0,0 +1,98 @@
+package model;
+
+import headless.ScalingSuite;
+import model.helpers.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The shape tests of the narrowphase on pairs of one shape combination, about half of which
+ * overlap, and the cost of building a manifold for each pair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class NarrowPhaseBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int pairs;
+
+    @Param({"CIRCLE_CIRCLE", "CIRCLE_BOX", "BOX_CIRCLE", "BOX_BOX"})
+    public String shapes;
+
+    private Entity[] entitiesA;
+    private Entity[] entitiesB;
+    private Manifold[] manifolds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(ScalingSuite.SEED);
+        entitiesA = new Entity[pairs];
+        entitiesB = new Entity[pairs];
+        manifolds = new Manifold[pairs];
+        for (int i = 0; i < pairs; i++) {
+            // every pair sits in a cell of its own, with B up to a body width away from A
+            double x = i * 200.0;
+            entitiesA[i] = createEntity(shapes.startsWith("CIRCLE"), x, 0.0);
+            entitiesB[i] = createEntity(shapes.endsWith("CIRCLE"),
+                    x + random.nextDouble() * 60, random.nextDouble() * 60);
+            manifolds[i] = new Manifold(entitiesA[i], entitiesB[i], false);
+        }
+    }
+
+    // EFFECTS: returns a circle of radius 20 or a 40 by 40 box at (x, y)
+    private static Entity createEntity(boolean circle, double x, double y) {
+        if (circle) {
+            return Entity.createCircle(new Vector2(x, y), 0.5, 1, 20);
+        }
+        return Entity.createBox(new Vector2(x, y), 0.5, 1, 40, 40);
+    }
+
+    @Benchmark
+    public int update() {
+        int collisions = 0;
+        for (Manifold manifold : manifolds) {
+            switch (shapes) {
+                case "CIRCLE_CIRCLE":
+                    manifold.updateCircleCircle();
+                    break;
+                case "CIRCLE_BOX":
+                    manifold.updateCircleBox();
+                    break;
+                case "BOX_CIRCLE":
+                    manifold.updateBoxCircle();
+                    break;
+                default:
+                    manifold.updateBoxBox();
+            }
+            if (manifold.isCollision()) {
+                collisions++;
+            }
+        }
+        return collisions;
+    }
+
+    @Benchmark
+    public void construct(Blackhole blackhole) {
+        for (int i = 0; i < pairs; i++) {
+            blackhole.consume(new Manifold(entitiesA[i], entitiesB[i]));
+        }
+    }
+
+}
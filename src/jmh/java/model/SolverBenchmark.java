@@ -0,0 +1,65 @@
+package model;
+
+import headless.ScalingSuite;
+import headless.Scenes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps of piles of boxes resting on each other, which spend most of their time in the solver.
+ * The solver runs inside updatePhysics, so its cost is read from how the time of a step grows
+ * with the number of iterations, for each solver mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SolverBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int entities;
+
+    @Param({"1", "5", "10", "20"})
+    public int iterations;
+
+    @Param({"SEQUENTIAL", "ISLANDS", "COLORED"})
+    public SolverMode solverMode;
+
+    private PhysicsEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        engine = new PhysicsEngine(Scenes.pileUp(entities, ScalingSuite.SEED));
+        engine.setSolverMode(solverMode);
+        engine.setConvergence(0.0, iterations, iterations);
+        // land the piles so every step has a full set of resting contacts
+        for (int step = 0; step < StepBenchmark.SETTLE; step++) {
+            engine.updatePhysics();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(StepBenchmark.STEPS)
+    public PhysicsEngine solve() {
+        for (int step = 0; step < StepBenchmark.STEPS; step++) {
+            engine.updatePhysics();
+        }
+        return engine;
+    }
+
+}
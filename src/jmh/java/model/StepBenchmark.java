@@ -0,0 +1,70 @@
+package model;
+
+import headless.ScalingSuite;
+import headless.Scenes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full calls to PhysicsEngine.updatePhysics. A scene changes as it settles and falls asleep, so
+ * every measurement starts from a freshly built scene and times the same window of steps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class StepBenchmark {
+
+    // steps timed per measurement, after the scene had SETTLE steps to fall into contact
+    static final int STEPS = 60;
+    static final int SETTLE = 30;
+
+    // cells of the scattered scenes, close enough for some neighbours to touch
+    static final double SPACING = 40.0;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int entities;
+
+    // share of the bodies that are circles
+    @Param({"0.0", "0.5", "1.0"})
+    public double circles;
+
+    @Param({"false", "true"})
+    public boolean vectorized;
+
+    private PhysicsEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        engine = new PhysicsEngine(Scenes.scatter(entities, circles, StepBenchmark.SPACING, ScalingSuite.SEED));
+        engine.setVectorized(vectorized);
+        for (int step = 0; step < SETTLE; step++) {
+            engine.updatePhysics();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public PhysicsEngine step() {
+        for (int step = 0; step < STEPS; step++) {
+            engine.updatePhysics();
+        }
+        return engine;
+    }
+
+}
@@ -0,0 +1,71 @@
+package persistence;
+
+import headless.ScalingSuite;
+import headless.Scenes;
+import model.Entity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving a scene with JsonWriter, and saving it then loading it back with JsonReader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int entities;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double circles;
+
+    private ArrayList<Entity> scene;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        scene = Scenes.scatter(entities, circles, 40.0, ScalingSuite.SEED);
+        file = Files.createTempFile("benchmark", ".json");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.writeEntities(scene);
+        writer.close();
+        return file;
+    }
+
+    @Benchmark
+    public ArrayList<Entity> roundTrip() throws IOException {
+        write();
+        return new JsonReader(file.toString()).read();
+    }
+
+}
@@ -0,0 +1,63 @@
+package headless;
+
+import java.util.List;
+
+/**
+ * The outcome of a batch run: the result of every world, in the order of the scenarios, and the
+ * throughput of the batch as a whole.
+ */
+public class BatchResult {
+
+    private final List<WorldResult> worlds;
+    private final long elapsedNanos;
+
+    // EFFECTS: constructs the result of a batch that took elapsedNanos of wall clock time
+    public BatchResult(List<WorldResult> worlds, long elapsedNanos) {
+        this.worlds = worlds;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // EFFECTS: returns the number of steps taken by all worlds together
+    public long getTotalSteps() {
+        long total = 0;
+        for (WorldResult world : worlds) {
+            total += world.getSteps();
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the number of entities stepped times steps, over all worlds together
+    public long getTotalBodySteps() {
+        long total = 0;
+        for (WorldResult world : worlds) {
+            total += world.getBodySteps();
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the steps taken per second of wall clock time
+    public double getStepsPerSecond() {
+        return getTotalSteps() / getElapsedSeconds();
+    }
+
+    // EFFECTS: returns the entities stepped times steps per second of wall clock time
+    public double getBodyStepsPerSecond() {
+        return getTotalBodySteps() / getElapsedSeconds();
+    }
+
+    // EFFECTS: returns the wall clock time of the batch in seconds
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public List<WorldResult> getWorlds() {
+        return worlds;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+}
@@ -0,0 +1,53 @@
+package headless;
+
+import model.PhysicsEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs many independent worlds without the user interface, each as fast as its thread allows
+ * rather than in real time. Worlds share nothing, so every scenario runs as one task on the
+ * executor and the batch takes as long as its slowest thread.
+ */
+public class BatchRunner {
+
+    private final Executor executor;
+
+    // EFFECTS: constructs a runner that runs worlds on executor
+    public BatchRunner(Executor executor) {
+        this.executor = executor;
+    }
+
+    // EFFECTS: runs every scenario on the executor and returns their results in the order of
+    //          scenarios. a world that fails makes the whole batch fail
+    public BatchResult run(List<Scenario> scenarios) {
+        long start = System.nanoTime();
+        List<CompletableFuture<WorldResult>> tasks = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            tasks.add(CompletableFuture.supplyAsync(() -> runWorld(scenario), executor));
+        }
+
+        List<WorldResult> worlds = new ArrayList<>();
+        for (CompletableFuture<WorldResult> task : tasks) {
+            worlds.add(task.join());
+        }
+        return new BatchResult(worlds, System.nanoTime() - start);
+    }
+
+    // EFFECTS: builds the world of scenario and steps it on the calling thread
+    public static WorldResult runWorld(Scenario scenario) {
+        PhysicsEngine engine = scenario.createEngine();
+        double simulatedTime = 0.0;
+        long start = System.nanoTime();
+        for (int step = 0; step < scenario.getSteps(); step++) {
+            simulatedTime += engine.getStepSize();
+            engine.updatePhysics();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new WorldResult(scenario.getName(), engine.getEntities(), scenario.getSteps(), simulatedTime, elapsed);
+    }
+
+}
@@ -0,0 +1,40 @@
+package headless;
+
+/**
+ * The time one workload took per step at one size and thread count.
+ */
+public class ScalingPoint {
+
+    private final Workload workload;
+    private final int count;
+    private final int threads;
+    private final double msPerStep;
+
+    // EFFECTS: constructs the measurement of workload with count bodies on threads threads
+    public ScalingPoint(Workload workload, int count, int threads, double msPerStep) {
+        this.workload = workload;
+        this.count = count;
+        this.threads = threads;
+        this.msPerStep = msPerStep;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    // EFFECTS: returns the wall clock milliseconds a step took on average
+    public double getMsPerStep() {
+        return msPerStep;
+    }
+
+}
@@ -0,0 +1,98 @@
+package headless;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The measurements of a scaling suite, read as one curve of ms/step against body count per
+ * workload and thread count. Each curve is summed up by the exponent of its growth, about 1 for
+ * a step that is linear in the number of bodies and 2 for a quadratic one, so a change in
+ * complexity class shows up as a jump in the exponent.
+ */
+public class ScalingReport {
+
+    private final List<ScalingPoint> points;
+
+    // EFFECTS: constructs a report of points, in the order they were measured
+    public ScalingReport(List<ScalingPoint> points) {
+        this.points = points;
+    }
+
+    // EFFECTS: returns the points of workload on threads threads, in the order they were measured
+    public List<ScalingPoint> getCurve(Workload workload, int threads) {
+        List<ScalingPoint> curve = new ArrayList<>();
+        for (ScalingPoint point : points) {
+            if (point.getWorkload() == workload && point.getThreads() == threads) {
+                curve.add(point);
+            }
+        }
+        return curve;
+    }
+
+    // EFFECTS: returns the slope of the least squares line through log ms/step against log count
+    //          of the curve of workload on threads threads, or NaN if it has fewer than two sizes
+    public double getExponent(Workload workload, int threads) {
+        List<ScalingPoint> curve = getCurve(workload, threads);
+        int n = 0;
+        double sumX = 0.0;
+        double sumY = 0.0;
+        double sumXX = 0.0;
+        double sumXY = 0.0;
+        for (ScalingPoint point : curve) {
+            if (point.getCount() <= 0 || point.getMsPerStep() <= 0) {
+                continue;
+            }
+            double x = Math.log(point.getCount());
+            double y = Math.log(point.getMsPerStep());
+            n++;
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+        double denominator = n * sumXX - sumX * sumX;
+        if (n < 2 || denominator == 0.0) {
+            return Double.NaN;
+        }
+        return (n * sumXY - sumX * sumY) / denominator;
+    }
+
+    // EFFECTS: returns every point as a line of comma separated values, after a header line
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder("workload,count,threads,msPerStep\n");
+        for (ScalingPoint point : points) {
+            csv.append(point.getWorkload()).append(',')
+                    .append(point.getCount()).append(',')
+                    .append(point.getThreads()).append(',')
+                    .append(point.getMsPerStep()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    // EFFECTS: returns one line per curve with its ms/step at every size and its exponent
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        List<String> seen = new ArrayList<>();
+        for (ScalingPoint point : points) {
+            String key = point.getWorkload() + "/" + point.getThreads();
+            if (seen.contains(key)) {
+                continue;
+            }
+            seen.add(key);
+            report.append(String.format("%-9s threads=%-3d", point.getWorkload(), point.getThreads()));
+            for (ScalingPoint size : getCurve(point.getWorkload(), point.getThreads())) {
+                report.append(String.format("  N=%d %.3f ms", size.getCount(), size.getMsPerStep()));
+            }
+            report.append(String.format("  exponent=%.2f%n", getExponent(point.getWorkload(), point.getThreads())));
+        }
+        return report.toString();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public List<ScalingPoint> getPoints() {
+        return points;
+    }
+
+}
@@ -0,0 +1,115 @@
+package headless;
+
+import model.PhysicsEngine;
+import model.SolverMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs every workload at growing body counts and thread counts and reports how the time of a
+ * step grows, one curve per workload and thread count. A run with more than one thread solves
+ * islands and tests pairs in parallel on a pool of that many threads.
+ *
+ * Every scene is built from the same seed, so two runs measure exactly the same worlds.
+ */
+public class ScalingSuite {
+
+    public static final long SEED = 42L;
+
+    private final List<Workload> workloads;
+    private final int[] counts;
+    private final int[] threads;
+    private final int warmupSteps;
+    private final int steps;
+
+    // REQUIRES: counts and threads are not empty and every thread count is >= 1, warmupSteps >= 0,
+    //           steps >= 1
+    // EFFECTS: constructs a suite running every workload at each of counts on each of threads,
+    //          timing steps steps after warmupSteps untimed ones
+    public ScalingSuite(List<Workload> workloads, int[] counts, int[] threads, int warmupSteps, int steps) {
+        this.workloads = workloads;
+        this.counts = counts.clone();
+        this.threads = threads.clone();
+        this.warmupSteps = warmupSteps;
+        this.steps = steps;
+    }
+
+    // EFFECTS: measures every workload, size and thread count and returns the measurements
+    public ScalingReport run() {
+        // the first measurement would otherwise also pay for compiling the engine
+        if (!workloads.isEmpty()) {
+            measure(workloads.get(0), counts[0], threads[0]);
+        }
+
+        List<ScalingPoint> points = new ArrayList<>();
+        for (Workload workload : workloads) {
+            for (int threadCount : threads) {
+                for (int count : counts) {
+                    points.add(measure(workload, count, threadCount));
+                }
+            }
+        }
+        return new ScalingReport(points);
+    }
+
+    // EFFECTS: returns the time per step of workload with count bodies on threadCount threads
+    private ScalingPoint measure(Workload workload, int count, int threadCount) {
+        PhysicsEngine engine = new PhysicsEngine(workload.create(count, SEED));
+        ForkJoinPool pool = null;
+        if (threadCount > 1) {
+            pool = new ForkJoinPool(threadCount);
+            engine.setSolverMode(SolverMode.ISLANDS);
+            engine.setSolverPool(pool);
+            engine.setNarrowPhaseExecutor(pool);
+        }
+        try {
+            for (int step = 0; step < warmupSteps; step++) {
+                engine.updatePhysics();
+            }
+            long start = System.nanoTime();
+            for (int step = 0; step < steps; step++) {
+                engine.updatePhysics();
+            }
+            double msPerStep = (System.nanoTime() - start) / 1e6 / steps;
+            return new ScalingPoint(workload, count, threadCount, msPerStep);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // EFFECTS: runs every workload from 250 to 16000 bodies on 1 thread up to one per processor,
+    //          prints the curves and writes the measurements as CSV to the file named by the
+    //          first argument, if there is one
+    public static void main(String[] args) throws IOException {
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t <= Runtime.getRuntime().availableProcessors(); t *= 2) {
+            threadCounts.add(t);
+        }
+        int[] threads = new int[threadCounts.size()];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = threadCounts.get(i);
+        }
+
+        ScalingSuite suite = new ScalingSuite(Arrays.asList(Workload.values()),
+                new int[] {250, 500, 1000, 2000, 4000, 8000, 16000}, threads, 30, 60);
+        ScalingReport report = suite.run();
+        System.out.print(report);
+        if (args.length > 0) {
+            Path results = Paths.get(args[0]);
+            if (results.getParent() != null) {
+                Files.createDirectories(results.getParent());
+            }
+            Files.write(results, report.toCsv().getBytes());
+        }
+    }
+
+}
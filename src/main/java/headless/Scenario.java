@@ -0,0 +1,56 @@
+package headless;
+
+import model.Entity;
+import model.PhysicsEngine;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One world for a BatchRunner to simulate: how to build its entities, how to set up its engine,
+ * and how many steps to run it for. The scene is built fresh when the world runs, so the same
+ * scenario can be run any number of times.
+ */
+public class Scenario {
+
+    private final String name;
+    private final Supplier<ArrayList<Entity>> scene;
+    private final Consumer<PhysicsEngine> setup;
+    private final int steps;
+
+    // REQUIRES: steps >= 0
+    // EFFECTS: constructs a scenario running the entities scene builds for steps steps on an
+    //          engine with the default settings
+    public Scenario(String name, Supplier<ArrayList<Entity>> scene, int steps) {
+        this(name, scene, engine -> { }, steps);
+    }
+
+    // REQUIRES: steps >= 0
+    // EFFECTS: constructs a scenario running the entities scene builds for steps steps on an
+    //          engine that setup configures first
+    public Scenario(String name, Supplier<ArrayList<Entity>> scene, Consumer<PhysicsEngine> setup, int steps) {
+        this.name = name;
+        this.scene = scene;
+        this.setup = setup;
+        this.steps = steps;
+    }
+
+    // EFFECTS: returns a configured engine over a freshly built scene
+    PhysicsEngine createEngine() {
+        PhysicsEngine engine = new PhysicsEngine(scene.get());
+        setup.accept(engine);
+        return engine;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+}
@@ -0,0 +1,136 @@
+package headless;
+
+import model.Entity;
+import model.helpers.Vector2;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Canonical scenes for measuring the engine. Every scene is built from a seed, so the same count
+ * and seed always give the same bodies in the same order, and every scene rests on a static
+ * floor that comes first in the list.
+ */
+public final class Scenes {
+
+    private Scenes() {
+    }
+
+    // REQUIRES: count >= 0
+    // EFFECTS: returns count boxes and circles stacked in piles of ten on a floor, each body
+    //          slightly off the one below so the piles settle rather than balance
+    public static ArrayList<Entity> pileUp(int count, long seed) {
+        Random random = new Random(seed);
+        int piles = (count + 9) / 10;
+        ArrayList<Entity> scene = new ArrayList<>(count + 1);
+        scene.add(createFloor(-50, 500, piles * 100 + 100));
+        for (int i = 0; i < count; i++) {
+            double x = (i / 10) * 100 + random.nextDouble() * 6;
+            double y = 450 - 42 * (i % 10);
+            if (random.nextInt(4) == 0) {
+                scene.add(Entity.createCircle(new Vector2(x, y), 0.2, 1, 20));
+            } else {
+                scene.add(Entity.createBox(new Vector2(x, y), 0.2, 1, 40, 40));
+            }
+        }
+        return scene;
+    }
+
+    // REQUIRES: count >= 0
+    // EFFECTS: returns count circles of mixed sizes falling from random heights onto a floor
+    public static ArrayList<Entity> rain(int count, long seed) {
+        Random random = new Random(seed);
+        double width = Math.max(400, Math.sqrt(count) * 100);
+        ArrayList<Entity> scene = new ArrayList<>(count + 1);
+        scene.add(createFloor(0, 500, width));
+        for (int i = 0; i < count; i++) {
+            double radius = 4 + random.nextInt(12);
+            double x = random.nextDouble() * (width - radius * 2);
+            double y = 400 - random.nextDouble() * width;
+            Entity drop = Entity.createCircle(new Vector2(x, y), 0.5, 1, radius);
+            drop.setVelocity(new Vector2(0, random.nextDouble() * 100));
+            scene.add(drop);
+        }
+        return scene;
+    }
+
+    // REQUIRES: count >= 0
+    // EFFECTS: returns a pyramid of count boxes on a floor, full rows from the bottom and the
+    //          remaining boxes on top. there is nothing random in a pyramid, so seed is unused
+    public static ArrayList<Entity> pyramid(int count, long seed) {
+        int base = 0;
+        while (base * (base + 1) / 2 < count) {
+            base++;
+        }
+        ArrayList<Entity> scene = new ArrayList<>(count + 1);
+        scene.add(createFloor(0, 500, base * 40 + 200));
+        int placed = 0;
+        for (int row = 0; placed < count; row++) {
+            for (int i = 0; i < base - row && placed < count; i++) {
+                scene.add(Entity.createBox(new Vector2(100 + row * 20 + i * 40, 460 - row * 40), 0.2, 1, 40, 40));
+                placed++;
+            }
+        }
+        return scene;
+    }
+
+    // REQUIRES: count >= 0, 0 <= circles <= 1, spacing > 0
+    // EFFECTS: returns count bodies over a square grid of cells spacing apart above a floor,
+    //          each jittered within its cell, about circles of them circles and the rest boxes
+    public static ArrayList<Entity> scatter(int count, double circles, double spacing, long seed) {
+        Random random = new Random(seed);
+        int columns = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+        int rows = (count + columns - 1) / columns;
+        ArrayList<Entity> scene = new ArrayList<>(count + 1);
+        scene.add(createFloor(-spacing, rows * spacing + spacing, (columns + 2) * spacing));
+        for (int i = 0; i < count; i++) {
+            double x = (i % columns) * spacing + random.nextDouble() * 10;
+            double y = (i / columns) * spacing + random.nextDouble() * 10;
+            if (random.nextDouble() < circles) {
+                scene.add(Entity.createCircle(new Vector2(x, y), 0.5, 1, 8 + random.nextInt(13)));
+            } else {
+                scene.add(Entity.createBox(new Vector2(x, y), 0.5, 1,
+                        16 + random.nextInt(25), 16 + random.nextInt(25)));
+            }
+        }
+        return scene;
+    }
+
+    // REQUIRES: count >= 0
+    // EFFECTS: returns count bodies packed into overlapping clusters of about fifty, spread
+    //          over a floor, so every cluster bursts apart as it falls
+    public static ArrayList<Entity> clusters(int count, long seed) {
+        Random random = new Random(seed);
+        int clusters = Math.max(1, count / 50);
+        double width = Math.max(400, Math.sqrt(clusters) * 600);
+        double[] centerX = new double[clusters];
+        double[] centerY = new double[clusters];
+        for (int c = 0; c < clusters; c++) {
+            centerX[c] = 100 + random.nextDouble() * (width - 200);
+            centerY[c] = 300 - random.nextDouble() * width;
+        }
+
+        ArrayList<Entity> scene = new ArrayList<>(count + 1);
+        scene.add(createFloor(0, 500, width));
+        for (int i = 0; i < count; i++) {
+            int c = i % clusters;
+            double x = centerX[c] + random.nextGaussian() * 40;
+            double y = centerY[c] + random.nextGaussian() * 40;
+            if (random.nextBoolean()) {
+                scene.add(Entity.createCircle(new Vector2(x, y), 0.3, 1, 6 + random.nextInt(10)));
+            } else {
+                scene.add(Entity.createBox(new Vector2(x, y), 0.3, 1,
+                        12 + random.nextInt(20), 12 + random.nextInt(20)));
+            }
+        }
+        return scene;
+    }
+
+    // EFFECTS: returns a static floor 40 high with its top left corner at (x, y)
+    private static Entity createFloor(double x, double y, double width) {
+        Entity floor = Entity.createBox(new Vector2(x, y), 1, 1, width, 40);
+        floor.setStatic();
+        return floor;
+    }
+
+}
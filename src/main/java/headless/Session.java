@@ -0,0 +1,155 @@
+package headless;
+
+import model.PhysicsEngine;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * One world hosted by a SessionHost, stepped in real time with a fixed-step accumulator like the
+ * loop of PhysicsUI. Instead of spinning, every advance reports how long until the next step is
+ * due so the host can sleep until then, and how late the host woke it is kept as its tick lag.
+ *
+ * The session steps its engine under a lock; other threads reach the engine through withEngine.
+ * The lock is a ReentrantLock rather than a monitor so a virtual thread waiting on it can unmount.
+ */
+public class Session {
+
+    // seconds of time the accumulator holds at most, so a session that fell behind does not spend
+    // ever longer catching up
+    public static final double MAX_FRAME = 0.1;
+
+    private final String name;
+    private final PhysicsEngine engine;
+    private final ReentrantLock lock;
+    private volatile boolean open;
+
+    // time of the last advance and when the next one is due, in System.nanoTime units
+    private long lastTime;
+    private long deadline;
+    // seconds of time not yet stepped
+    private double accumulator;
+
+    // written by the thread advancing the session only, read by anyone
+    private volatile long ticks;
+    private volatile long steps;
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+    private volatile long totalLagNanos;
+    private volatile double droppedTime;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an open session stepping engine, called name
+    Session(String name, PhysicsEngine engine) {
+        this.name = name;
+        this.engine = engine;
+        this.lock = new ReentrantLock();
+        this.open = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the clock of the session at now
+    void start(long now) {
+        lastTime = now;
+        deadline = now;
+    }
+
+    // REQUIRES: start was called, now is no earlier than the last time passed in
+    // MODIFIES: this, engine
+    // EFFECTS: steps the engine for every full step of time that passed up to now, and returns
+    //          the nanoseconds until the next step is due
+    long advance(long now) {
+        lock.lock();
+        try {
+            if (ticks > 0) {
+                long lag = Math.max(0L, now - deadline);
+                lastLagNanos = lag;
+                maxLagNanos = Math.max(maxLagNanos, lag);
+                totalLagNanos += lag;
+            }
+
+            accumulator += (now - lastTime) / 1e9;
+            lastTime = now;
+            if (accumulator > MAX_FRAME) {
+                droppedTime += accumulator - MAX_FRAME;
+                accumulator = MAX_FRAME;
+            }
+
+            // the engine may change its step size after every step
+            double step = engine.getStepSize();
+            while (accumulator >= step) {
+                engine.updatePhysics();
+                accumulator -= step;
+                steps++;
+                step = engine.getStepSize();
+            }
+
+            long wait = (long) Math.ceil((step - accumulator) * 1e9);
+            deadline = now + wait;
+            ticks++;
+            return wait;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs action on the engine while no step is running
+    public void withEngine(Consumer<PhysicsEngine> action) {
+        lock.lock();
+        try {
+            action.accept(engine);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the session, the host steps it no more
+    void close() {
+        open = false;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    // EFFECTS: returns the number of times the session was advanced
+    public long getTicks() {
+        return ticks;
+    }
+
+    // EFFECTS: returns the number of steps the engine took
+    public long getSteps() {
+        return steps;
+    }
+
+    // EFFECTS: returns how late the last advance came after its next step was due, in nanoseconds
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    // EFFECTS: returns the latest any advance came, in nanoseconds
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    // EFFECTS: returns how late advances came on average, in nanoseconds
+    public double getAverageLagNanos() {
+        long lagged = ticks - 1;
+        return lagged <= 0 ? 0.0 : (double) totalLagNanos / lagged;
+    }
+
+    // EFFECTS: returns the seconds of time the session skipped because it fell more than
+    //          MAX_FRAME behind
+    public double getDroppedTime() {
+        return droppedTime;
+    }
+
+}
@@ -0,0 +1,132 @@
+package headless;
+
+import model.PhysicsEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the real-time loops of many small worlds at once. On a JVM with virtual threads every
+ * session gets a virtual thread of its own that sleeps between steps, so thousands of idle
+ * sessions cost little memory. Elsewhere each advance is scheduled on a small pool of platform
+ * threads for when the next step is due, which also sleeps rather than spins.
+ *
+ * Virtual threads are looked up reflectively, so the host builds and runs on JVMs without them.
+ */
+public class SessionHost {
+
+    // virtual thread factory, or null when sessions run on scheduler
+    private final ThreadFactory virtualThreads;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+
+    private final List<Session> sessions;
+
+    // MODIFIES: this
+    // EFFECTS: constructs a host that runs sessions on virtual threads if the JVM has them, and on
+    //          a scheduler with a thread per processor otherwise
+    public SessionHost() {
+        this.virtualThreads = virtualThreadFactory();
+        this.scheduler = virtualThreads == null
+                ? Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors()) : null;
+        this.ownsScheduler = true;
+        this.sessions = new CopyOnWriteArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: constructs a host that runs sessions on scheduler, which it does not shut down
+    public SessionHost(ScheduledExecutorService scheduler) {
+        this.virtualThreads = null;
+        this.scheduler = scheduler;
+        this.ownsScheduler = false;
+        this.sessions = new CopyOnWriteArrayList<>();
+    }
+
+    // EFFECTS: returns a factory of virtual threads, or null if the JVM has none
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts stepping engine in real time and returns its session
+    public Session open(String name, PhysicsEngine engine) {
+        Session session = new Session(name, engine);
+        session.start(System.nanoTime());
+        sessions.add(session);
+        if (virtualThreads != null) {
+            virtualThreads.newThread(() -> loop(session)).start();
+        } else {
+            scheduler.execute(() -> advance(session));
+        }
+        return session;
+    }
+
+    // MODIFIES: this, session
+    // EFFECTS: stops stepping session
+    public void close(Session session) {
+        session.close();
+        sessions.remove(session);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes every session, and shuts down the scheduler if the host created it
+    public void shutdown() {
+        for (Session session : sessions) {
+            close(session);
+        }
+        if (scheduler != null && ownsScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    // MODIFIES: session
+    // EFFECTS: advances session and sleeps until its next step is due until it is closed
+    private static void loop(Session session) {
+        while (session.isOpen()) {
+            LockSupport.parkNanos(session.advance(System.nanoTime()));
+        }
+    }
+
+    // MODIFIES: session
+    // EFFECTS: advances session and schedules the next advance for when its next step is due
+    private void advance(Session session) {
+        if (!session.isOpen() || scheduler.isShutdown()) {
+            return;
+        }
+        long wait = session.advance(System.nanoTime());
+        scheduler.schedule(() -> advance(session), wait, TimeUnit.NANOSECONDS);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // EFFECTS: returns true if sessions run on virtual threads
+    public boolean isVirtual() {
+        return virtualThreads != null;
+    }
+
+    // EFFECTS: returns the open sessions
+    public List<Session> getSessions() {
+        return new ArrayList<>(sessions);
+    }
+
+    // EFFECTS: returns the latest any open session has been advanced, in nanoseconds
+    public long getMaxLagNanos() {
+        long max = 0L;
+        for (Session session : sessions) {
+            max = Math.max(max, session.getMaxLagNanos());
+        }
+        return max;
+    }
+
+}
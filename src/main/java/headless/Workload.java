@@ -0,0 +1,41 @@
+package headless;
+
+import model.Entity;
+
+import java.util.ArrayList;
+
+/**
+ * The canonical scenes of Scenes, by name, so a suite can run each of them at any size.
+ */
+public enum Workload {
+    // piles of ten bodies resting on a floor, mostly solver work
+    PILE_UP,
+    // circles falling from random heights, many short lived contacts
+    RAIN,
+    // one pyramid of boxes, a single large island
+    PYRAMID,
+    // bodies spread thinly over a grid, mostly broadphase work
+    SCATTER,
+    // tightly packed clusters that burst apart, deep overlaps
+    CLUSTERS;
+
+    // cells of the sparse scatter, wide enough that few bodies touch
+    private static final double SCATTER_SPACING = 80.0;
+
+    // REQUIRES: count >= 0
+    // EFFECTS: returns the scene of this workload with count bodies, built from seed
+    public ArrayList<Entity> create(int count, long seed) {
+        switch (this) {
+            case PILE_UP:
+                return Scenes.pileUp(count, seed);
+            case RAIN:
+                return Scenes.rain(count, seed);
+            case PYRAMID:
+                return Scenes.pyramid(count, seed);
+            case SCATTER:
+                return Scenes.scatter(count, 0.5, SCATTER_SPACING, seed);
+            default:
+                return Scenes.clusters(count, seed);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package headless;
+
+import model.Entity;
+
+import java.util.List;
+
+/**
+ * The outcome of simulating one Scenario: the entities as they ended up, and how long the
+ * simulation took on the thread that ran it.
+ */
+public class WorldResult {
+
+    private final String name;
+    private final List<Entity> entities;
+    private final int steps;
+    private final double simulatedTime;
+    private final long elapsedNanos;
+
+    // EFFECTS: constructs the result of running the scenario called name
+    public WorldResult(String name, List<Entity> entities, int steps, double simulatedTime, long elapsedNanos) {
+        this.name = name;
+        this.entities = entities;
+        this.steps = steps;
+        this.simulatedTime = simulatedTime;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // EFFECTS: returns the number of entities stepped times the number of steps
+    public long getBodySteps() {
+        return (long) entities.size() * steps;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public String getName() {
+        return name;
+    }
+
+    // EFFECTS: returns the entities of the world in their final state
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    // EFFECTS: returns the seconds of physics simulated, the sum of the steps taken
+    public double getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    // EFFECTS: returns the wall clock time spent stepping the world, in nanoseconds
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+}
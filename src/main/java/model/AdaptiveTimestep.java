@@ -0,0 +1,64 @@
+package model;
+
+/**
+ * Picks the size of the next step of an engine from how violent the scene is. A calm scene takes
+ * longer steps, so fewer of them cover the same time, while a scene with fast entities or deep
+ * penetrations takes shorter ones. Step sizes are the largest step halved a whole number of
+ * times, so they always add up evenly to the time a caller wants to simulate.
+ */
+public class AdaptiveTimestep {
+
+    private final double minStep;
+    private final double maxStep;
+    // furthest the fastest entity may move in one step
+    private final double maxTravel;
+    // deepest penetration tolerated before the step is halved
+    private final double maxPenetration;
+
+    // MODIFIES: this
+    // EFFECTS: constructs a controller stepping between a quarter and twice PhysicsEngine.DT,
+    //          keeping entities to 4 pixels a step and penetrations under 8 pixels, which leaves
+    //          room for the few pixels a resting pile settles into itself
+    public AdaptiveTimestep() {
+        this(PhysicsEngine.DT / 4, PhysicsEngine.DT * 2, 4.0, 8.0);
+    }
+
+    // REQUIRES: 0 < minStep <= maxStep, maxTravel > 0, maxPenetration > 0
+    // MODIFIES: this
+    // EFFECTS: constructs a controller stepping between minStep and maxStep
+    public AdaptiveTimestep(double minStep, double maxStep, double maxTravel, double maxPenetration) {
+        this.minStep = minStep;
+        this.maxStep = maxStep;
+        this.maxTravel = maxTravel;
+        this.maxPenetration = maxPenetration;
+    }
+
+    // EFFECTS: returns the step to take after a step of current that ended with the fastest
+    //          entity at maxSpeed and the deepest contact at maxDepth. this is the largest of
+    //          maxStep halved zero or more times that keeps the fastest entity within maxTravel,
+    //          and is at most half of current if maxDepth is over maxPenetration, but never
+    //          smaller than minStep
+    public double nextStep(double current, double maxSpeed, double maxDepth) {
+        double limit = maxSpeed > 0 ? maxTravel / maxSpeed : maxStep;
+        if (maxDepth > maxPenetration) {
+            limit = Math.min(limit, current / 2);
+        }
+
+        double step = maxStep;
+        while (step > limit && step / 2 >= minStep) {
+            step /= 2;
+        }
+        return step;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public double getMinStep() {
+        return minStep;
+    }
+
+    public double getMaxStep() {
+        return maxStep;
+    }
+
+}
@@ -0,0 +1,98 @@
+package model;
+
+import model.helpers.LongHashMap;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps one Manifold for every pair of entities that the broadphase keeps reporting, from one
+ * step to the next, so the impulse a contact ended a step with can warm start the next step.
+ * Manifolds are looked up by pair key and go back to a ManifoldPool once their pair is no longer
+ * reported, so the cache stops allocating once it has seen its largest number of contacts.
+ */
+public class ContactCache {
+
+    private final LongHashMap<Manifold> manifolds;
+    private final ArrayList<Manifold> cached;
+    private final ManifoldPool pool;
+    private int step;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty cache
+    public ContactCache() {
+        this.manifolds = new LongHashMap<>();
+        this.cached = new ArrayList<>();
+        this.pool = new ManifoldPool();
+        this.step = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new step, manifolds not collided before the next eviction are dropped
+    public void beginStep() {
+        step++;
+    }
+
+    // REQUIRES: key == Pair.key(a, b)
+    // MODIFIES: this
+    // EFFECTS: returns the manifold of the pair of a and b, brought up to date with their
+    //          current positions. creates it if the pair was not reported in the last step
+    public Manifold collide(Entity a, Entity b, long key) {
+        Manifold manifold = acquire(a, b, key);
+        manifold.update();
+        return manifold;
+    }
+
+    // REQUIRES: key == Pair.key(a, b)
+    // MODIFIES: this
+    // EFFECTS: returns the manifold of the pair of a and b as it was last step, keeping it for
+    //          this step. creates it if the pair was not reported in the last step. the caller
+    //          has to update the manifold before using it
+    public Manifold acquire(Entity a, Entity b, long key) {
+        Manifold manifold = manifolds.get(key);
+        if (manifold == null) {
+            manifold = pool.obtain(a, b);
+            manifolds.put(key, manifold);
+            cached.add(manifold);
+        }
+        manifold.setLastStep(step);
+        return manifold;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recycles every manifold that was not collided since the last call to beginStep
+    public void evictStale() {
+        for (int i = cached.size() - 1; i >= 0; i--) {
+            Manifold manifold = cached.get(i);
+            if (manifold.getLastStep() != step) {
+                manifolds.remove(manifold.getKey());
+                cached.set(i, cached.get(cached.size() - 1));
+                cached.remove(cached.size() - 1);
+                pool.recycle(manifold);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recycles every manifold
+    public void clear() {
+        for (int i = 0; i < cached.size(); i++) {
+            pool.recycle(cached.get(i));
+        }
+        manifolds.clear();
+        cached.clear();
+    }
+
+    // EFFECTS: returns the cached manifold of the pair with key, or null if there is none
+    public Manifold get(long key) {
+        return manifolds.get(key);
+    }
+
+    public int size() {
+        return cached.size();
+    }
+
+    public ManifoldPool getPool() {
+        return pool;
+    }
+
+}
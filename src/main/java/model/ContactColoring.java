@@ -0,0 +1,121 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits the manifolds of a step into colors so that no two manifolds of the same color share an
+ * awake entity. The manifolds of one color can then be resolved in parallel without any locking,
+ * while the colors themselves are resolved one after the other.
+ * Static entities are never written by the solver, so any number of manifolds of a color may share one.
+ */
+public class ContactColoring {
+
+    // colors tracked per entity in a bit mask, manifolds that find no free color go into the last one
+    public static final int MAX_COLORS = 64;
+
+    // colors already used by the manifolds of each awake entity, indexed by Entity.getIslandIndex
+    private long[] usedColors;
+
+    private int[] manifoldColor;
+    private Manifold[] sortedManifolds;
+    private int manifoldCount;
+
+    // colorStart[c] to colorStart[c + 1] are the manifolds of color c
+    private final int[] colorStart;
+    private int colorCount;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty coloring
+    public ContactColoring() {
+        this.usedColors = new long[16];
+        this.manifoldColor = new int[16];
+        this.sortedManifolds = new Manifold[16];
+        this.colorStart = new int[MAX_COLORS + 2];
+        this.colorCount = 0;
+    }
+
+    // REQUIRES: the island indexes of the awake entities are numbered 0 to entityCount - 1,
+    //           as done by Islands.build
+    // MODIFIES: this
+    // EFFECTS: greedily gives every manifold the lowest color not yet used by either of its
+    //          awake entities and sorts the manifolds by color, keeping their order within a color
+    public void build(int entityCount, List<Manifold> manifolds) {
+        Arrays.fill(sortedManifolds, 0, manifoldCount, null);
+        manifoldCount = manifolds.size();
+        if (usedColors.length < entityCount) {
+            usedColors = new long[entityCount * 2];
+        }
+        if (manifoldColor.length < manifoldCount) {
+            manifoldColor = new int[manifoldCount * 2];
+            sortedManifolds = new Manifold[manifoldCount * 2];
+        }
+        Arrays.fill(usedColors, 0, entityCount, 0L);
+        Arrays.fill(colorStart, 0);
+
+        colorCount = 0;
+        for (int i = 0; i < manifoldCount; i++) {
+            Entity a = manifolds.get(i).getEntityA();
+            Entity b = manifolds.get(i).getEntityB();
+            long used = 0L;
+            if (a.isAwake()) {
+                used |= usedColors[a.getIslandIndex()];
+            }
+            if (b.isAwake()) {
+                used |= usedColors[b.getIslandIndex()];
+            }
+
+            // lowest free color, or the shared overflow color once every bit is taken
+            int color = used == -1L ? MAX_COLORS : Long.numberOfTrailingZeros(~used);
+            if (color < MAX_COLORS) {
+                if (a.isAwake()) {
+                    usedColors[a.getIslandIndex()] |= 1L << color;
+                }
+                if (b.isAwake()) {
+                    usedColors[b.getIslandIndex()] |= 1L << color;
+                }
+            }
+            manifoldColor[i] = color;
+            colorStart[color + 1]++;
+            colorCount = Math.max(colorCount, color + 1);
+        }
+
+        for (int color = 0; color < colorCount; color++) {
+            colorStart[color + 1] += colorStart[color];
+        }
+        for (int i = manifoldCount - 1; i >= 0; i--) {
+            sortedManifolds[--colorStart[manifoldColor[i] + 1]] = manifolds.get(i);
+        }
+        for (int color = 0; color < colorCount; color++) {
+            colorStart[color] = colorStart[color + 1];
+        }
+        colorStart[colorCount] = manifoldCount;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public int getColorCount() {
+        return colorCount;
+    }
+
+    // EFFECTS: returns true if color holds manifolds that could not be given a color of their own,
+    //          which share entities and have to be resolved in order
+    public boolean isOverflow(int color) {
+        return color == MAX_COLORS;
+    }
+
+    // EFFECTS: returns the index of the first manifold of color
+    public int getColorStart(int color) {
+        return colorStart[color];
+    }
+
+    // EFFECTS: returns the index one past the last manifold of color
+    public int getColorEnd(int color) {
+        return colorStart[color + 1];
+    }
+
+    public Manifold getManifold(int index) {
+        return sortedManifolds[index];
+    }
+
+}
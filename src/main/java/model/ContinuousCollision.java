@@ -0,0 +1,144 @@
+package model;
+
+import model.helpers.Vector2;
+
+/**
+ * Swept time of impact tests for circles that move far in one step compared to their size. The
+ * discrete tests only see where entities are at the start of each step, so a small fast circle
+ * can be on one side of a thin entity in one step and past it in the next. Sweeping the circle
+ * along its path for the step finds the first thing it would touch, so it can be stopped there.
+ *
+ * Both tests work on the motion of the circle relative to the other entity. A box is swept as
+ * the box grown by the radius of the circle on every side, which treats the rounded corners as
+ * square and so may report an impact slightly early near a corner, but never misses one.
+ */
+public class ContinuousCollision {
+
+    // a circle is swept once it moves further than this many radii in one step
+    public static final double FAST_RADII = 1.0;
+
+    // returned by timeOfImpact when the entities do not touch within the step
+    public static final double NO_IMPACT = Double.POSITIVE_INFINITY;
+
+    // normal of the last impact found, pointing from the circle towards the other entity
+    private final Vector2 normal;
+
+    // MODIFIES: this
+    // EFFECTS: constructs a tester with no impact found yet
+    public ContinuousCollision() {
+        this.normal = new Vector2();
+    }
+
+    // REQUIRES: circle is a circle
+    // EFFECTS: returns true if circle moves far enough in dt to pass through things between steps
+    public static boolean isFast(Entity circle, double dt) {
+        double moveX = circle.getVelocityX() * dt;
+        double moveY = circle.getVelocityY() * dt;
+        double limit = circle.getRadius() * FAST_RADII;
+        return (moveX * moveX) + (moveY * moveY) > limit * limit;
+    }
+
+    // REQUIRES: circle is a circle other than obstacle
+    // MODIFIES: this
+    // EFFECTS: returns the fraction of dt after which circle, moving at its velocity, first
+    //          touches obstacle moving at its own, and sets the normal of that impact. returns
+    //          NO_IMPACT if they do not touch within dt, or already overlap at the start of it
+    public double timeOfImpact(Entity circle, Entity obstacle, double dt) {
+        double moveX = (circle.getVelocityX() - obstacle.getVelocityX()) * dt;
+        double moveY = (circle.getVelocityY() - obstacle.getVelocityY()) * dt;
+        if (obstacle.getEntityType() == Entity.EntityType.CIRCLE) {
+            return circleTimeOfImpact(circle, obstacle, moveX, moveY);
+        }
+        return boxTimeOfImpact(circle, obstacle, moveX, moveY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: solves |distance - move * t| = radii for the first t in [0, 1]
+    private double circleTimeOfImpact(Entity circle, Entity other, double moveX, double moveY) {
+        double distX = other.getCenterX() - circle.getCenterX();
+        double distY = other.getCenterY() - circle.getCenterY();
+        double radii = circle.getRadius() + other.getRadius();
+
+        double a = (moveX * moveX) + (moveY * moveY);
+        double b = -2 * ((distX * moveX) + (distY * moveY));
+        double c = (distX * distX) + (distY * distY) - (radii * radii);
+        if (c <= 0 || a == 0) {
+            return NO_IMPACT;
+        }
+        double discriminant = (b * b) - (4 * a * c);
+        if (discriminant < 0) {
+            return NO_IMPACT;
+        }
+        double time = (-b - Math.sqrt(discriminant)) / (2 * a);
+        if (time < 0 || time > 1) {
+            return NO_IMPACT;
+        }
+
+        normal.set(distX - moveX * time, distY - moveY * time).normalizeLocal();
+        return time;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: casts the center of the circle along move against the box grown by the radius,
+    //          one axis at a time, and returns the first t in [0, 1] it is inside on both axes
+    private double boxTimeOfImpact(Entity circle, Entity box, double moveX, double moveY) {
+        double radius = circle.getRadius();
+        double centerX = circle.getCenterX();
+        double centerY = circle.getCenterY();
+        double minX = box.getMinX() - radius;
+        double maxX = box.getMaxX() + radius;
+        double minY = box.getMinY() - radius;
+        double maxY = box.getMaxY() + radius;
+
+        boolean insideX = centerX > minX && centerX < maxX;
+        boolean insideY = centerY > minY && centerY < maxY;
+        if (insideX && insideY) {
+            return NO_IMPACT;
+        }
+
+        double enterX = Double.NEGATIVE_INFINITY;
+        double exitX = Double.POSITIVE_INFINITY;
+        if (moveX != 0) {
+            double timeMin = (minX - centerX) / moveX;
+            double timeMax = (maxX - centerX) / moveX;
+            enterX = Math.min(timeMin, timeMax);
+            exitX = Math.max(timeMin, timeMax);
+        } else if (!insideX) {
+            return NO_IMPACT;
+        }
+
+        double enterY = Double.NEGATIVE_INFINITY;
+        double exitY = Double.POSITIVE_INFINITY;
+        if (moveY != 0) {
+            double timeMin = (minY - centerY) / moveY;
+            double timeMax = (maxY - centerY) / moveY;
+            enterY = Math.min(timeMin, timeMax);
+            exitY = Math.max(timeMin, timeMax);
+        } else if (!insideY) {
+            return NO_IMPACT;
+        }
+
+        double enter = Math.max(enterX, enterY);
+        double exit = Math.min(exitX, exitY);
+        if (enter > exit || enter < 0 || enter > 1) {
+            return NO_IMPACT;
+        }
+
+        // the axis entered last is the face that is hit
+        if (enterX > enterY) {
+            normal.set(Math.signum(moveX), 0);
+        } else {
+            normal.set(0, Math.signum(moveY));
+        }
+        return enter;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // EFFECTS: returns the normal of the last impact found, pointing from the circle to the
+    //          other entity. it changes with the next impact found
+    public Vector2 getNormal() {
+        return normal;
+    }
+
+}
@@ -0,0 +1,213 @@
+package model;
+
+import model.helpers.Vector2;
+
+/**
+ * An EntityStore for the one entity that is in no engine, keeping its row in plain fields. An
+ * entity starts out here and comes back here when it is released, so an entity outside an engine
+ * costs one small object rather than a store of arrays. The bounds are worked out on demand from
+ * the position and extent, the same way the other layouts cache them.
+ */
+final class DetachedEntityStore extends EntityStore {
+
+    private double positionX;
+    private double positionY;
+    private double velocityX;
+    private double velocityY;
+    private double forceX;
+    private double forceY;
+    private double mass;
+    private double invMass;
+    private double restitution;
+    private double radius;
+    private double width;
+    private double height;
+    private double extentX;
+    private double extentY;
+    private boolean awake;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty store with room for one entity
+    DetachedEntityStore() {
+        super(1);
+    }
+
+    // EFFECTS: throws IllegalStateException, a detached store holds one entity only
+    @Override
+    protected void grow(int capacity) {
+        throw new IllegalStateException("a detached store holds one entity");
+    }
+
+    // ~~~~~~~~~~~~~~~~ SWEEPS ~~~~~~~~~~~~~~~~ //
+
+    @Override
+    public void applyForces(double dt, Vector2 gravity) {
+        if (size() == 0 || !awake) {
+            return;
+        }
+        double scale = dt * 0.5 * invMass;
+        velocityX = velocityX + forceX * scale + gravity.getComponentX() * (dt * 0.5);
+        velocityY = velocityY + forceY * scale + gravity.getComponentY() * (dt * 0.5);
+    }
+
+    @Override
+    public void applyVelocities(double dt) {
+        if (size() == 0 || !awake) {
+            return;
+        }
+        positionX = positionX + velocityX * dt;
+        positionY = positionY + velocityY * dt;
+    }
+
+    @Override
+    public void clearForces() {
+        forceX = 0.0;
+        forceY = 0.0;
+    }
+
+    // ~~~~~~~~~~~~~~~~ ROWS ~~~~~~~~~~~~~~~~ //
+    // the only row is 0, so the index is ignored
+
+    @Override
+    public double getPositionX(int index) {
+        return positionX;
+    }
+
+    @Override
+    public double getPositionY(int index) {
+        return positionY;
+    }
+
+    @Override
+    public void setPosition(int index, double x, double y) {
+        positionX = x;
+        positionY = y;
+    }
+
+    @Override
+    public double getVelocityX(int index) {
+        return velocityX;
+    }
+
+    @Override
+    public double getVelocityY(int index) {
+        return velocityY;
+    }
+
+    @Override
+    public void setVelocity(int index, double x, double y) {
+        velocityX = x;
+        velocityY = y;
+    }
+
+    @Override
+    public double getForceX(int index) {
+        return forceX;
+    }
+
+    @Override
+    public double getForceY(int index) {
+        return forceY;
+    }
+
+    @Override
+    public void setForce(int index, double x, double y) {
+        forceX = x;
+        forceY = y;
+    }
+
+    @Override
+    public double getMass(int index) {
+        return mass;
+    }
+
+    @Override
+    public double getInvMass(int index) {
+        return invMass;
+    }
+
+    @Override
+    public void setMass(int index, double mass, double invMass) {
+        this.mass = mass;
+        this.invMass = invMass;
+    }
+
+    @Override
+    public double getRestitution(int index) {
+        return restitution;
+    }
+
+    @Override
+    public void setRestitution(int index, double restitution) {
+        this.restitution = restitution;
+    }
+
+    @Override
+    public double getRadius(int index) {
+        return radius;
+    }
+
+    @Override
+    public double getWidth(int index) {
+        return width;
+    }
+
+    @Override
+    public double getHeight(int index) {
+        return height;
+    }
+
+    @Override
+    public void setShape(int index, double radius, double width, double height) {
+        this.radius = radius;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public double getExtentX(int index) {
+        return extentX;
+    }
+
+    @Override
+    public double getExtentY(int index) {
+        return extentY;
+    }
+
+    @Override
+    public void setExtent(int index, double x, double y) {
+        extentX = x;
+        extentY = y;
+    }
+
+    @Override
+    public double getCenterX(int index) {
+        return positionX + extentX * 0.5;
+    }
+
+    @Override
+    public double getCenterY(int index) {
+        return positionY + extentY * 0.5;
+    }
+
+    @Override
+    public double getMaxX(int index) {
+        return positionX + extentX;
+    }
+
+    @Override
+    public double getMaxY(int index) {
+        return positionY + extentY;
+    }
+
+    @Override
+    public boolean isAwake(int index) {
+        return awake;
+    }
+
+    @Override
+    public void setAwake(int index, boolean awake) {
+        this.awake = awake;
+    }
+
+}
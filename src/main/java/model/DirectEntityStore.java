@@ -0,0 +1,296 @@
+package model;
+
+import model.helpers.Vector2;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * An EntityStore keeping its rows off the heap in a direct ByteBuffer, one fixed-size record per
+ * body. The garbage collector never scans the body state, which keeps heap size and collection
+ * times flat for worlds with hundreds of thousands of bodies.
+ *
+ * Record layout, in bytes from the start of a record:
+ * position x, y at 0, 8; velocity x, y at 16, 24; force x, y at 32, 40; mass at 48;
+ * inverse mass at 56; restitution at 64; radius at 72; width at 80; height at 88;
+ * extent x, y at 96, 104; center x, y at 112, 120; max x, y at 128, 136; awake at 144.
+ */
+public class DirectEntityStore extends EntityStore {
+
+    public static final int RECORD_SIZE = 152;
+    // most records a buffer can hold, so every byte offset index * RECORD_SIZE fits in an int
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private static final int POSITION_X = 0;
+    private static final int POSITION_Y = 8;
+    private static final int VELOCITY_X = 16;
+    private static final int VELOCITY_Y = 24;
+    private static final int FORCE_X = 32;
+    private static final int FORCE_Y = 40;
+    private static final int MASS = 48;
+    private static final int INV_MASS = 56;
+    private static final int RESTITUTION = 64;
+    private static final int RADIUS = 72;
+    private static final int WIDTH = 80;
+    private static final int HEIGHT = 88;
+    private static final int EXTENT_X = 96;
+    private static final int EXTENT_Y = 104;
+    private static final int CENTER_X = 112;
+    private static final int CENTER_Y = 120;
+    private static final int MAX_X = 128;
+    private static final int MAX_Y = 136;
+    private static final int AWAKE = 144;
+
+    private ByteBuffer records;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty store
+    public DirectEntityStore() {
+        this(16);
+    }
+
+    // REQUIRES: capacity > 0
+    // MODIFIES: this
+    // EFFECTS: constructs an empty store with room for capacity bodies.
+    //          throws IllegalArgumentException if capacity is more than MAX_CAPACITY
+    public DirectEntityStore(int capacity) {
+        super(checkCapacity(capacity));
+        this.records = allocateRecords(capacity);
+    }
+
+    // EFFECTS: returns capacity, throws IllegalArgumentException if it is more than MAX_CAPACITY
+    private static int checkCapacity(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity " + capacity + " is over " + MAX_CAPACITY);
+        }
+        return capacity;
+    }
+
+    // REQUIRES: capacity <= MAX_CAPACITY
+    // EFFECTS: returns a zeroed direct buffer with room for capacity records
+    private static ByteBuffer allocateRecords(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * RECORD_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    protected int maxCapacity() {
+        return MAX_CAPACITY;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        ByteBuffer grown = allocateRecords(capacity);
+        grown.put(0, records, 0, records.capacity());
+        records = grown;
+    }
+
+    // ~~~~~~~~~~~~~~~~ SWEEPS ~~~~~~~~~~~~~~~~ //
+
+    @Override
+    public void applyForces(double dt, Vector2 gravity) {
+        /*
+        v += (1/m * F) * dt
+         */
+        double gravityX = gravity.getComponentX() * (dt * 0.5);
+        double gravityY = gravity.getComponentY() * (dt * 0.5);
+        int end = size() * RECORD_SIZE;
+        for (int record = 0; record < end; record += RECORD_SIZE) {
+            if (records.get(record + AWAKE) == 0) {
+                continue;
+            }
+            double scale = dt * 0.5 * records.getDouble(record + INV_MASS);
+            records.putDouble(record + VELOCITY_X,
+                    records.getDouble(record + VELOCITY_X) + records.getDouble(record + FORCE_X) * scale + gravityX);
+            records.putDouble(record + VELOCITY_Y,
+                    records.getDouble(record + VELOCITY_Y) + records.getDouble(record + FORCE_Y) * scale + gravityY);
+        }
+    }
+
+    @Override
+    public void applyVelocities(double dt) {
+        /*
+        x += v * dt
+         */
+        int end = size() * RECORD_SIZE;
+        for (int record = 0; record < end; record += RECORD_SIZE) {
+            if (records.get(record + AWAKE) == 0) {
+                continue;
+            }
+            records.putDouble(record + POSITION_X,
+                    records.getDouble(record + POSITION_X) + records.getDouble(record + VELOCITY_X) * dt);
+            records.putDouble(record + POSITION_Y,
+                    records.getDouble(record + POSITION_Y) + records.getDouble(record + VELOCITY_Y) * dt);
+            refreshBounds(record);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the cached bounds of the record at byte offset record from its position
+    //          and extent
+    private void refreshBounds(int record) {
+        double x = records.getDouble(record + POSITION_X);
+        double y = records.getDouble(record + POSITION_Y);
+        double extentX = records.getDouble(record + EXTENT_X);
+        double extentY = records.getDouble(record + EXTENT_Y);
+        records.putDouble(record + CENTER_X, x + extentX * 0.5);
+        records.putDouble(record + CENTER_Y, y + extentY * 0.5);
+        records.putDouble(record + MAX_X, x + extentX);
+        records.putDouble(record + MAX_Y, y + extentY);
+    }
+
+    @Override
+    public void clearForces() {
+        int end = size() * RECORD_SIZE;
+        for (int record = 0; record < end; record += RECORD_SIZE) {
+            records.putDouble(record + FORCE_X, 0.0);
+            records.putDouble(record + FORCE_Y, 0.0);
+        }
+    }
+
+    // ~~~~~~~~~~~~~~~~ ROWS ~~~~~~~~~~~~~~~~ //
+
+    @Override
+    public double getPositionX(int index) {
+        return records.getDouble(index * RECORD_SIZE + POSITION_X);
+    }
+
+    @Override
+    public double getPositionY(int index) {
+        return records.getDouble(index * RECORD_SIZE + POSITION_Y);
+    }
+
+    @Override
+    public void setPosition(int index, double x, double y) {
+        records.putDouble(index * RECORD_SIZE + POSITION_X, x);
+        records.putDouble(index * RECORD_SIZE + POSITION_Y, y);
+        refreshBounds(index * RECORD_SIZE);
+    }
+
+    @Override
+    public double getVelocityX(int index) {
+        return records.getDouble(index * RECORD_SIZE + VELOCITY_X);
+    }
+
+    @Override
+    public double getVelocityY(int index) {
+        return records.getDouble(index * RECORD_SIZE + VELOCITY_Y);
+    }
+
+    @Override
+    public void setVelocity(int index, double x, double y) {
+        records.putDouble(index * RECORD_SIZE + VELOCITY_X, x);
+        records.putDouble(index * RECORD_SIZE + VELOCITY_Y, y);
+    }
+
+    @Override
+    public double getForceX(int index) {
+        return records.getDouble(index * RECORD_SIZE + FORCE_X);
+    }
+
+    @Override
+    public double getForceY(int index) {
+        return records.getDouble(index * RECORD_SIZE + FORCE_Y);
+    }
+
+    @Override
+    public void setForce(int index, double x, double y) {
+        records.putDouble(index * RECORD_SIZE + FORCE_X, x);
+        records.putDouble(index * RECORD_SIZE + FORCE_Y, y);
+    }
+
+    @Override
+    public double getMass(int index) {
+        return records.getDouble(index * RECORD_SIZE + MASS);
+    }
+
+    @Override
+    public double getInvMass(int index) {
+        return records.getDouble(index * RECORD_SIZE + INV_MASS);
+    }
+
+    @Override
+    public void setMass(int index, double mass, double invMass) {
+        records.putDouble(index * RECORD_SIZE + MASS, mass);
+        records.putDouble(index * RECORD_SIZE + INV_MASS, invMass);
+    }
+
+    @Override
+    public double getRestitution(int index) {
+        return records.getDouble(index * RECORD_SIZE + RESTITUTION);
+    }
+
+    @Override
+    public void setRestitution(int index, double restitution) {
+        records.putDouble(index * RECORD_SIZE + RESTITUTION, restitution);
+    }
+
+    @Override
+    public double getRadius(int index) {
+        return records.getDouble(index * RECORD_SIZE + RADIUS);
+    }
+
+    @Override
+    public double getWidth(int index) {
+        return records.getDouble(index * RECORD_SIZE + WIDTH);
+    }
+
+    @Override
+    public double getHeight(int index) {
+        return records.getDouble(index * RECORD_SIZE + HEIGHT);
+    }
+
+    @Override
+    public void setShape(int index, double radius, double width, double height) {
+        records.putDouble(index * RECORD_SIZE + RADIUS, radius);
+        records.putDouble(index * RECORD_SIZE + WIDTH, width);
+        records.putDouble(index * RECORD_SIZE + HEIGHT, height);
+    }
+
+    @Override
+    public double getExtentX(int index) {
+        return records.getDouble(index * RECORD_SIZE + EXTENT_X);
+    }
+
+    @Override
+    public double getExtentY(int index) {
+        return records.getDouble(index * RECORD_SIZE + EXTENT_Y);
+    }
+
+    @Override
+    public void setExtent(int index, double x, double y) {
+        records.putDouble(index * RECORD_SIZE + EXTENT_X, x);
+        records.putDouble(index * RECORD_SIZE + EXTENT_Y, y);
+        refreshBounds(index * RECORD_SIZE);
+    }
+
+    @Override
+    public double getCenterX(int index) {
+        return records.getDouble(index * RECORD_SIZE + CENTER_X);
+    }
+
+    @Override
+    public double getCenterY(int index) {
+        return records.getDouble(index * RECORD_SIZE + CENTER_Y);
+    }
+
+    @Override
+    public double getMaxX(int index) {
+        return records.getDouble(index * RECORD_SIZE + MAX_X);
+    }
+
+    @Override
+    public double getMaxY(int index) {
+        return records.getDouble(index * RECORD_SIZE + MAX_Y);
+    }
+
+    @Override
+    public boolean isAwake(int index) {
+        return records.get(index * RECORD_SIZE + AWAKE) != 0;
+    }
+
+    @Override
+    public void setAwake(int index, boolean awake) {
+        records.put(index * RECORD_SIZE + AWAKE, (byte) (awake ? 1 : 0));
+    }
+
+}
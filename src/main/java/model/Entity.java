@@ -4,6 +4,8 @@ import model.helpers.Vector2;
 import org.json.JSONObject;
 import persistence.Writable;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 
 /**
  * An Entity class that represents the physical objects in the engine
@@ -17,40 +19,50 @@ public class Entity implements Writable {
         BOX
     }
 
-    // physics related stuff
-    private Vector2 position;
-    private Vector2 velocity;
-    private Vector2 force;
+    // source of ids, shared by every engine so ids stay unique across worlds
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
 
-    // properties of entity
-    private final double restitution;
-    private double mass;
-    private double invMass;
+    // stable identifier used to key pairs of entities
+    private final int id;
 
-    // shape of entity
-    private final double radius;
-    private final double width;
-    private final double height;
+    // the store holding the entity's physical state, and the entity's row in it
+    private EntityStore store;
+    private int index;
 
     // determines what entity is and whether entity is in a fixed position
     private boolean isStatic;
     private final EntityType entityType;
 
+    // number of consecutive steps the entity has been slow enough to sleep
+    private int sleepSteps;
+    // the sleeping islands holding entity, null while awake, and its island's range in them
+    private SleepingIslands sleepers;
+    private int sleepStart;
+    private int sleepEnd;
+    // scratch index used by the engine while building islands
+    private int islandIndex;
+
     // MODIFIES: this
-    // EFFECTS: constructs an entity
+    // EFFECTS: constructs an entity in a detached store of its own
     public Entity(Vector2 position, double restitution, double mass, double radius,
                   double width, double height, EntityType entityType) {
-        this.position = position;
-        this.velocity = new Vector2();
-        this.force = new Vector2();
-        this.restitution = restitution;
-        this.mass = mass;
-        this.invMass = 1 / mass;
-        this.radius = radius;
-        this.width = width;
-        this.height = height;
+        this.id = NEXT_ID.getAndIncrement();
+        this.store = new DetachedEntityStore();
+        this.index = store.allocate(this);
+        store.setPosition(index, position.getComponentX(), position.getComponentY());
+        store.setRestitution(index, restitution);
+        store.setMass(index, mass, 1 / mass);
+        store.setShape(index, radius, width, height);
+        if (entityType == EntityType.CIRCLE) {
+            store.setExtent(index, radius * 2, radius * 2);
+        } else {
+            store.setExtent(index, width, height);
+        }
+        store.setAwake(index, true);
         this.entityType = entityType;
         this.isStatic = false;
+        this.sleepSteps = 0;
+        this.sleepers = null;
     }
 
     // REQUIRES: 0 <= restitution <= 1, mass > 0
@@ -70,8 +82,50 @@ public class Entity implements Writable {
     // EFFECTS: makes entity static (not affected by environment)
     public void setStatic() {
         this.isStatic = true;
-        this.mass = 0.0;
-        this.invMass = 0.0;
+        store.setMass(index, 0.0, 0.0);
+        store.setAwake(index, false);
+    }
+
+    // MODIFIES: this, other entities of its island
+    // EFFECTS: wakes entity and every entity that fell asleep together with it
+    public void wake() {
+        sleepSteps = 0;
+        if (sleepers != null) {
+            sleepers.wake(sleepStart, sleepEnd);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts entity to sleep as part of the island from start to end of sleepers,
+    //          stopping it in place
+    void sleep(SleepingIslands sleepers, int start, int end) {
+        this.sleepers = sleepers;
+        setSleepRange(start, end);
+        store.setVelocity(index, 0.0, 0.0);
+        store.setForce(index, 0.0, 0.0);
+        store.setAwake(index, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: notes that the island of entity moved to the range from start to end
+    void setSleepRange(int start, int end) {
+        this.sleepStart = start;
+        this.sleepEnd = end;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lets entity move again, called by the sleeping islands as they wake its island
+    void awaken() {
+        sleepers = null;
+        sleepSteps = 0;
+        store.setAwake(index, !isStatic);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: points the entity at its row in store, after the store moved it there
+    void attach(EntityStore store, int index) {
+        this.store = store;
+        this.index = index;
     }
 
     @Override
@@ -94,62 +148,182 @@ public class Entity implements Writable {
         return json;
     }
 
+    // EFFECTS: returns the smallest x-coordinate covered by the entity's bounding box
+    public double getMinX() {
+        return store.getPositionX(index);
+    }
+
+    // EFFECTS: returns the smallest y-coordinate covered by the entity's bounding box
+    public double getMinY() {
+        return store.getPositionY(index);
+    }
+
+    // EFFECTS: returns the largest x-coordinate covered by the entity's bounding box
+    public double getMaxX() {
+        return store.getMaxX(index);
+    }
+
+    // EFFECTS: returns the largest y-coordinate covered by the entity's bounding box
+    public double getMaxY() {
+        return store.getMaxY(index);
+    }
+
+    // EFFECTS: returns the width of the entity's bounding box
+    public double getBoundingWidth() {
+        return store.getExtentX(index);
+    }
+
+    // EFFECTS: returns the height of the entity's bounding box
+    public double getBoundingHeight() {
+        return store.getExtentY(index);
+    }
+
+    // EFFECTS: returns the x-coordinate of the center of the entity's bounding box
+    public double getCenterX() {
+        return store.getCenterX(index);
+    }
+
+    // EFFECTS: returns the y-coordinate of the center of the entity's bounding box
+    public double getCenterY() {
+        return store.getCenterY(index);
+    }
+
 
     // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
 
 
+    public int getId() {
+        return id;
+    }
+
+    // EFFECTS: returns a copy of the position, changing it does not move the entity
     public Vector2 getPosition() {
-        return position;
+        return new Vector2(store.getPositionX(index), store.getPositionY(index));
+    }
+
+    // MODIFIES: out
+    // EFFECTS: stores the position in out and returns out
+    public Vector2 getPosition(Vector2 out) {
+        return out.set(store.getPositionX(index), store.getPositionY(index));
     }
 
     public void setPosition(Vector2 position) {
-        this.position = position;
+        setPosition(position.getComponentX(), position.getComponentY());
     }
 
+    public void setPosition(double x, double y) {
+        store.setPosition(index, x, y);
+    }
+
+    public double getPositionX() {
+        return store.getPositionX(index);
+    }
+
+    public double getPositionY() {
+        return store.getPositionY(index);
+    }
+
+    // EFFECTS: returns a copy of the velocity, changing it does not change the entity
     public Vector2 getVelocity() {
-        return velocity;
+        return new Vector2(store.getVelocityX(index), store.getVelocityY(index));
+    }
+
+    // MODIFIES: out
+    // EFFECTS: stores the velocity in out and returns out
+    public Vector2 getVelocity(Vector2 out) {
+        return out.set(store.getVelocityX(index), store.getVelocityY(index));
     }
 
     public void setVelocity(Vector2 velocity) {
-        this.velocity = velocity;
+        setVelocity(velocity.getComponentX(), velocity.getComponentY());
+    }
+
+    public void setVelocity(double x, double y) {
+        store.setVelocity(index, x, y);
+    }
+
+    public double getVelocityX() {
+        return store.getVelocityX(index);
+    }
+
+    public double getVelocityY() {
+        return store.getVelocityY(index);
     }
 
+    // EFFECTS: returns a copy of the force, changing it does not change the entity
     public Vector2 getForce() {
-        return force;
+        return new Vector2(store.getForceX(index), store.getForceY(index));
     }
 
     public void setForce(Vector2 force) {
-        this.force = force;
+        store.setForce(index, force.getComponentX(), force.getComponentY());
     }
 
     public double getMass() {
-        return mass;
+        return store.getMass(index);
     }
 
     public double getInvMass() {
-        return invMass;
+        return store.getInvMass(index);
     }
 
     public double getRestitution() {
-        return restitution;
+        return store.getRestitution(index);
     }
 
     public double getRadius() {
-        return radius;
+        return store.getRadius(index);
     }
 
     public double getWidth() {
-        return width;
+        return store.getWidth(index);
     }
 
     public double getHeight() {
-        return height;
+        return store.getHeight(index);
+    }
+
+    public EntityStore getStore() {
+        return store;
+    }
+
+    public int getIndex() {
+        return index;
     }
 
     public boolean isStatic() {
         return isStatic;
     }
 
+    // EFFECTS: returns true if entity moves this step, which static and sleeping entities do not
+    public boolean isAwake() {
+        return !isStatic && sleepers == null;
+    }
+
+    public boolean isSleeping() {
+        return sleepers != null;
+    }
+
+    int getSleepEnd() {
+        return sleepEnd;
+    }
+
+    public int getSleepSteps() {
+        return sleepSteps;
+    }
+
+    void setSleepSteps(int sleepSteps) {
+        this.sleepSteps = sleepSteps;
+    }
+
+    int getIslandIndex() {
+        return islandIndex;
+    }
+
+    void setIslandIndex(int islandIndex) {
+        this.islandIndex = islandIndex;
+    }
+
     public EntityType getEntityType() {
         return entityType;
     }
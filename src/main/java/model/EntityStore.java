@@ -0,0 +1,227 @@
+package model;
+
+import model.helpers.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the physical state of entities in rows indexed by a dense body index, with Entity as a
+ * handle to one row. Subclasses decide how the rows are laid out in memory; integrating every
+ * body is a linear sweep over that memory rather than a walk over separately allocated objects.
+ *
+ * An entity starts out in a small detached store of its own and moves into the store of the
+ * engine it is added to. Removing a body moves the last body into its row, so rows stay dense.
+ */
+public abstract class EntityStore {
+
+    private Entity[] entities;
+    private int size;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty store with room for capacity bodies
+    protected EntityStore(int capacity) {
+        this.entities = new Entity[capacity];
+        this.size = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds an empty row owned by entity and returns its index
+    //          throws IllegalStateException if the store already holds maxCapacity() rows
+    int allocate(Entity entity) {
+        if (size == entities.length) {
+            int capacity = grownCapacity(size, maxCapacity());
+            entities = Arrays.copyOf(entities, capacity);
+            grow(capacity);
+        }
+        entities[size] = entity;
+        clearRow(size);
+        return size++;
+    }
+
+    // MODIFIES: this, entity, the store entity is in
+    // EFFECTS: moves entity and its state into this store. does nothing if it is already here
+    public void adopt(Entity entity) {
+        EntityStore from = entity.getStore();
+        if (from == this) {
+            return;
+        }
+        int source = entity.getIndex();
+        int target = allocate(entity);
+        copyRow(from, source, this, target);
+        from.free(source);
+        entity.attach(this, target);
+    }
+
+    // MODIFIES: this, entity
+    // EFFECTS: moves entity and its state out of this store into a detached store of its own, so
+    //          the entity keeps working after it leaves an engine
+    public void release(Entity entity) {
+        if (entity.getStore() != this) {
+            return;
+        }
+        EntityStore own = new DetachedEntityStore();
+        int source = entity.getIndex();
+        int target = own.allocate(entity);
+        copyRow(this, source, own, target);
+        free(source);
+        entity.attach(own, target);
+    }
+
+    // MODIFIES: this, the entity in the last row
+    // EFFECTS: removes the row at index, moving the last row into its place
+    private void free(int index) {
+        int last = size - 1;
+        if (index != last) {
+            copyRow(this, last, this, index);
+            entities[index] = entities[last];
+            entities[index].attach(this, index);
+        }
+        entities[last] = null;
+        size--;
+    }
+
+    // MODIFIES: to
+    // EFFECTS: copies the row at source of from over the row at target of to
+    private static void copyRow(EntityStore from, int source, EntityStore to, int target) {
+        to.setPosition(target, from.getPositionX(source), from.getPositionY(source));
+        to.setVelocity(target, from.getVelocityX(source), from.getVelocityY(source));
+        to.setForce(target, from.getForceX(source), from.getForceY(source));
+        to.setMass(target, from.getMass(source), from.getInvMass(source));
+        to.setRestitution(target, from.getRestitution(source));
+        to.setShape(target, from.getRadius(source), from.getWidth(source), from.getHeight(source));
+        to.setExtent(target, from.getExtentX(source), from.getExtentY(source));
+        to.setAwake(target, from.isAwake(source));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: resets the row at index to zeros
+    private void clearRow(int index) {
+        setPosition(index, 0.0, 0.0);
+        setVelocity(index, 0.0, 0.0);
+        setForce(index, 0.0, 0.0);
+        setMass(index, 0.0, 0.0);
+        setRestitution(index, 0.0);
+        setShape(index, 0.0, 0.0, 0.0);
+        setExtent(index, 0.0, 0.0);
+        setAwake(index, false);
+    }
+
+    // REQUIRES: 0 < size <= max
+    // EFFECTS: returns double size, or max if that is more, for a store that is full at size.
+    //          throws IllegalStateException if size is already max
+    static int grownCapacity(int size, int max) {
+        if (size >= max) {
+            throw new IllegalStateException("store is full at " + max + " rows");
+        }
+        return (int) Math.min((long) size * 2, max);
+    }
+
+    // EFFECTS: returns the most rows this store can hold
+    protected int maxCapacity() {
+        return Integer.MAX_VALUE - 8;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows the memory holding the rows to capacity, keeping the existing rows
+    protected abstract void grow(int capacity);
+
+    // ~~~~~~~~~~~~~~~~ SWEEPS ~~~~~~~~~~~~~~~~ //
+
+    // MODIFIES: this
+    // EFFECTS: applies forces and gravity to the velocity of every awake body
+    public abstract void applyForces(double dt, Vector2 gravity);
+
+    // MODIFIES: this
+    // EFFECTS: applies the velocity of every awake body to its position, and moves its bounds with it
+    public abstract void applyVelocities(double dt);
+
+    // MODIFIES: this
+    // EFFECTS: clears the force of every body
+    public abstract void clearForces();
+
+    // MODIFIES: this
+    // EFFECTS: runs the sweeps with the Vector API if vectorized and the JVM has it. a layout
+    //          without vector kernels keeps its scalar sweeps
+    public void setVectorized(boolean vectorized) {
+    }
+
+    // ~~~~~~~~~~~~~~~~ ROWS ~~~~~~~~~~~~~~~~ //
+    // every index below requires 0 <= index < size()
+
+    public abstract double getPositionX(int index);
+
+    public abstract double getPositionY(int index);
+
+    public abstract void setPosition(int index, double x, double y);
+
+    public abstract double getVelocityX(int index);
+
+    public abstract double getVelocityY(int index);
+
+    public abstract void setVelocity(int index, double x, double y);
+
+    public abstract double getForceX(int index);
+
+    public abstract double getForceY(int index);
+
+    public abstract void setForce(int index, double x, double y);
+
+    public abstract double getMass(int index);
+
+    public abstract double getInvMass(int index);
+
+    public abstract void setMass(int index, double mass, double invMass);
+
+    public abstract double getRestitution(int index);
+
+    public abstract void setRestitution(int index, double restitution);
+
+    public abstract double getRadius(int index);
+
+    public abstract double getWidth(int index);
+
+    public abstract double getHeight(int index);
+
+    public abstract void setShape(int index, double radius, double width, double height);
+
+    // EFFECTS: returns the width of the bounding box of the body
+    public abstract double getExtentX(int index);
+
+    // EFFECTS: returns the height of the bounding box of the body
+    public abstract double getExtentY(int index);
+
+    // EFFECTS: sets the size of the bounding box of the body, with its position at the top left
+    public abstract void setExtent(int index, double x, double y);
+
+    // the bounds below are cached, and kept up to date whenever the position or extent changes
+
+    // EFFECTS: returns position x + extent x / 2
+    public abstract double getCenterX(int index);
+
+    // EFFECTS: returns position y + extent y / 2
+    public abstract double getCenterY(int index);
+
+    // EFFECTS: returns position x + extent x
+    public abstract double getMaxX(int index);
+
+    // EFFECTS: returns position y + extent y
+    public abstract double getMaxY(int index);
+
+    // EFFECTS: returns false for static and sleeping bodies, which integration skips
+    public abstract boolean isAwake(int index);
+
+    public abstract void setAwake(int index, boolean awake);
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the entity in the row at index
+    public Entity getEntity(int index) {
+        return entities[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,307 @@
+package model;
+
+import model.helpers.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * An EntityStore keeping each kind of state in its own primitive array on the heap, so a sweep
+ * over one kind of state reads contiguous memory. When vectorized, the sweeps integrate whole
+ * lanes of bodies at once with the Vector API.
+ */
+public class HeapEntityStore extends EntityStore {
+
+    private double[] positionX;
+    private double[] positionY;
+    private double[] velocityX;
+    private double[] velocityY;
+    private double[] forceX;
+    private double[] forceY;
+    private double[] mass;
+    private double[] invMass;
+    private double[] restitution;
+    private double[] radius;
+    private double[] width;
+    private double[] height;
+    private double[] extentX;
+    private double[] extentY;
+    private double[] centerX;
+    private double[] centerY;
+    private double[] maxX;
+    private double[] maxY;
+    private boolean[] awake;
+
+    // whether the sweeps run the vector kernels
+    private boolean vectorized;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty store
+    public HeapEntityStore() {
+        this(16);
+    }
+
+    // REQUIRES: capacity > 0
+    // MODIFIES: this
+    // EFFECTS: constructs an empty store with room for capacity bodies
+    public HeapEntityStore(int capacity) {
+        super(capacity);
+        this.positionX = new double[capacity];
+        this.positionY = new double[capacity];
+        this.velocityX = new double[capacity];
+        this.velocityY = new double[capacity];
+        this.forceX = new double[capacity];
+        this.forceY = new double[capacity];
+        this.mass = new double[capacity];
+        this.invMass = new double[capacity];
+        this.restitution = new double[capacity];
+        this.radius = new double[capacity];
+        this.width = new double[capacity];
+        this.height = new double[capacity];
+        this.extentX = new double[capacity];
+        this.extentY = new double[capacity];
+        this.centerX = new double[capacity];
+        this.centerY = new double[capacity];
+        this.maxX = new double[capacity];
+        this.maxY = new double[capacity];
+        this.awake = new boolean[capacity];
+        this.vectorized = false;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        positionX = Arrays.copyOf(positionX, capacity);
+        positionY = Arrays.copyOf(positionY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        forceX = Arrays.copyOf(forceX, capacity);
+        forceY = Arrays.copyOf(forceY, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        invMass = Arrays.copyOf(invMass, capacity);
+        restitution = Arrays.copyOf(restitution, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        extentX = Arrays.copyOf(extentX, capacity);
+        extentY = Arrays.copyOf(extentY, capacity);
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        awake = Arrays.copyOf(awake, capacity);
+    }
+
+    // ~~~~~~~~~~~~~~~~ SWEEPS ~~~~~~~~~~~~~~~~ //
+
+    @Override
+    public void applyForces(double dt, Vector2 gravity) {
+        /*
+        v += (1/m * F) * dt
+         */
+        double gravityX = gravity.getComponentX() * (dt * 0.5);
+        double gravityY = gravity.getComponentY() * (dt * 0.5);
+        int start = 0;
+        if (vectorized) {
+            start = VectorKernels.applyForces(size(), dt * 0.5, gravityX, gravityY, awake, invMass,
+                    forceX, forceY, velocityX, velocityY);
+        }
+        for (int i = start; i < size(); i++) {
+            if (!awake[i]) {
+                continue;
+            }
+            double scale = dt * 0.5 * invMass[i];
+            velocityX[i] = velocityX[i] + forceX[i] * scale + gravityX;
+            velocityY[i] = velocityY[i] + forceY[i] * scale + gravityY;
+        }
+    }
+
+    @Override
+    public void applyVelocities(double dt) {
+        /*
+        x += v * dt
+         */
+        int start = 0;
+        if (vectorized) {
+            start = VectorKernels.applyVelocities(size(), dt, awake, velocityX, velocityY, positionX, positionY,
+                    extentX, extentY, centerX, centerY, maxX, maxY);
+        }
+        for (int i = start; i < size(); i++) {
+            if (!awake[i]) {
+                continue;
+            }
+            positionX[i] = positionX[i] + velocityX[i] * dt;
+            positionY[i] = positionY[i] + velocityY[i] * dt;
+            refreshBounds(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the cached bounds of the row at index from its position and extent
+    private void refreshBounds(int index) {
+        centerX[index] = positionX[index] + extentX[index] * 0.5;
+        centerY[index] = positionY[index] + extentY[index] * 0.5;
+        maxX[index] = positionX[index] + extentX[index];
+        maxY[index] = positionY[index] + extentY[index];
+    }
+
+    @Override
+    public void clearForces() {
+        Arrays.fill(forceX, 0, size(), 0.0);
+        Arrays.fill(forceY, 0, size(), 0.0);
+    }
+
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    @Override
+    public void setVectorized(boolean vectorized) {
+        this.vectorized = vectorized && VectorKernels.isAvailable();
+    }
+
+    // ~~~~~~~~~~~~~~~~ ROWS ~~~~~~~~~~~~~~~~ //
+
+    @Override
+    public double getPositionX(int index) {
+        return positionX[index];
+    }
+
+    @Override
+    public double getPositionY(int index) {
+        return positionY[index];
+    }
+
+    @Override
+    public void setPosition(int index, double x, double y) {
+        positionX[index] = x;
+        positionY[index] = y;
+        refreshBounds(index);
+    }
+
+    @Override
+    public double getVelocityX(int index) {
+        return velocityX[index];
+    }
+
+    @Override
+    public double getVelocityY(int index) {
+        return velocityY[index];
+    }
+
+    @Override
+    public void setVelocity(int index, double x, double y) {
+        velocityX[index] = x;
+        velocityY[index] = y;
+    }
+
+    @Override
+    public double getForceX(int index) {
+        return forceX[index];
+    }
+
+    @Override
+    public double getForceY(int index) {
+        return forceY[index];
+    }
+
+    @Override
+    public void setForce(int index, double x, double y) {
+        forceX[index] = x;
+        forceY[index] = y;
+    }
+
+    @Override
+    public double getMass(int index) {
+        return mass[index];
+    }
+
+    @Override
+    public double getInvMass(int index) {
+        return invMass[index];
+    }
+
+    @Override
+    public void setMass(int index, double mass, double invMass) {
+        this.mass[index] = mass;
+        this.invMass[index] = invMass;
+    }
+
+    @Override
+    public double getRestitution(int index) {
+        return restitution[index];
+    }
+
+    @Override
+    public void setRestitution(int index, double restitution) {
+        this.restitution[index] = restitution;
+    }
+
+    @Override
+    public double getRadius(int index) {
+        return radius[index];
+    }
+
+    @Override
+    public double getWidth(int index) {
+        return width[index];
+    }
+
+    @Override
+    public double getHeight(int index) {
+        return height[index];
+    }
+
+    @Override
+    public void setShape(int index, double radius, double width, double height) {
+        this.radius[index] = radius;
+        this.width[index] = width;
+        this.height[index] = height;
+    }
+
+    @Override
+    public double getExtentX(int index) {
+        return extentX[index];
+    }
+
+    @Override
+    public double getExtentY(int index) {
+        return extentY[index];
+    }
+
+    @Override
+    public void setExtent(int index, double x, double y) {
+        extentX[index] = x;
+        extentY[index] = y;
+        refreshBounds(index);
+    }
+
+    @Override
+    public double getCenterX(int index) {
+        return centerX[index];
+    }
+
+    @Override
+    public double getCenterY(int index) {
+        return centerY[index];
+    }
+
+    @Override
+    public double getMaxX(int index) {
+        return maxX[index];
+    }
+
+    @Override
+    public double getMaxY(int index) {
+        return maxY[index];
+    }
+
+    @Override
+    public boolean isAwake(int index) {
+        return awake[index];
+    }
+
+    @Override
+    public void setAwake(int index, boolean awake) {
+        this.awake[index] = awake;
+    }
+
+}
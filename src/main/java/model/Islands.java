@@ -0,0 +1,213 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups the awake entities of a step into islands, the sets of entities connected to each other
+ * through manifolds. Static entities do not join islands, so two piles on the same floor stay
+ * separate islands. Entities and manifolds are sorted by island, keeping their original order
+ * within each island, so an island can be solved on its own exactly as it would be in a full pass.
+ */
+public class Islands {
+
+    // union-find forest over the awake entities, indexed by Entity.getIslandIndex
+    private int[] parent;
+    private int[] islandOfRoot;
+
+    // entities sorted by island, entityStart[i] to entityStart[i + 1] is island i
+    private Entity[] entities;
+    private int[] entityIsland;
+    private Entity[] sortedEntities;
+    private int[] entityStart;
+    private int entityCount;
+
+    // manifolds sorted by island, manifoldStart[i] to manifoldStart[i + 1] is island i
+    private int[] manifoldIsland;
+    private Manifold[] sortedManifolds;
+    private int[] manifoldStart;
+    private int manifoldCount;
+
+    private int islandCount;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty set of islands
+    public Islands() {
+        this.parent = new int[16];
+        this.islandOfRoot = new int[16];
+        this.entities = new Entity[16];
+        this.entityIsland = new int[16];
+        this.sortedEntities = new Entity[16];
+        this.entityStart = new int[17];
+        this.manifoldIsland = new int[16];
+        this.sortedManifolds = new Manifold[16];
+        this.manifoldStart = new int[17];
+        this.islandCount = 0;
+    }
+
+    // REQUIRES: every manifold has at least one awake entity
+    // MODIFIES: this, entity
+    // EFFECTS: rebuilds the islands from the awake entities in all and the manifolds between them
+    public void build(List<Entity> all, List<Manifold> manifolds) {
+        clearReferences();
+
+        entityCount = 0;
+        for (int i = 0; i < all.size(); i++) {
+            Entity entity = all.get(i);
+            if (!entity.isAwake()) {
+                continue;
+            }
+            if (entityCount == entities.length) {
+                grow(entityCount * 2);
+            }
+            entity.setIslandIndex(entityCount);
+            entities[entityCount] = entity;
+            parent[entityCount] = entityCount;
+            entityCount++;
+        }
+
+        for (int i = 0; i < manifolds.size(); i++) {
+            Manifold manifold = manifolds.get(i);
+            Entity a = manifold.getEntityA();
+            Entity b = manifold.getEntityB();
+            if (a.isAwake() && b.isAwake()) {
+                parent[find(a.getIslandIndex())] = find(b.getIslandIndex());
+            }
+        }
+
+        // number the roots in order of their first entity so the islands come out in a fixed order
+        islandCount = 0;
+        Arrays.fill(islandOfRoot, 0, entityCount, -1);
+        for (int i = 0; i < entityCount; i++) {
+            int root = find(i);
+            if (islandOfRoot[root] < 0) {
+                islandOfRoot[root] = islandCount++;
+            }
+            entityIsland[i] = islandOfRoot[root];
+        }
+        if (entityStart.length < islandCount + 1) {
+            entityStart = new int[islandCount * 2 + 1];
+            manifoldStart = new int[islandCount * 2 + 1];
+        }
+
+        sortEntities();
+        sortManifolds(manifolds);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counting sort of the entities by island, keeping their order within each island
+    private void sortEntities() {
+        Arrays.fill(entityStart, 0, islandCount + 1, 0);
+        for (int i = 0; i < entityCount; i++) {
+            entityStart[entityIsland[i] + 1]++;
+        }
+        for (int island = 0; island < islandCount; island++) {
+            entityStart[island + 1] += entityStart[island];
+        }
+        for (int i = entityCount - 1; i >= 0; i--) {
+            sortedEntities[--entityStart[entityIsland[i] + 1]] = entities[i];
+        }
+        // the placement loop moved every start back by one island, shift them forward again
+        for (int island = 0; island < islandCount; island++) {
+            entityStart[island] = entityStart[island + 1];
+        }
+        entityStart[islandCount] = entityCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counting sort of the manifolds by island, keeping their order within each island
+    private void sortManifolds(List<Manifold> manifolds) {
+        int count = manifolds.size();
+        manifoldCount = count;
+        if (manifoldIsland.length < count) {
+            manifoldIsland = new int[count * 2];
+            sortedManifolds = new Manifold[count * 2];
+        }
+
+        Arrays.fill(manifoldStart, 0, islandCount + 1, 0);
+        for (int i = 0; i < count; i++) {
+            Manifold manifold = manifolds.get(i);
+            Entity awake = manifold.getEntityA().isAwake() ? manifold.getEntityA() : manifold.getEntityB();
+            int island = entityIsland[awake.getIslandIndex()];
+            manifoldIsland[i] = island;
+            manifoldStart[island + 1]++;
+        }
+        for (int island = 0; island < islandCount; island++) {
+            manifoldStart[island + 1] += manifoldStart[island];
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            sortedManifolds[--manifoldStart[manifoldIsland[i] + 1]] = manifolds.get(i);
+        }
+        for (int island = 0; island < islandCount; island++) {
+            manifoldStart[island] = manifoldStart[island + 1];
+        }
+        manifoldStart[islandCount] = count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the root of the island of the entity at index, halving the path to it
+    private int find(int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows the per-entity arrays to capacity
+    private void grow(int capacity) {
+        parent = Arrays.copyOf(parent, capacity);
+        entities = Arrays.copyOf(entities, capacity);
+        islandOfRoot = new int[capacity];
+        entityIsland = new int[capacity];
+        sortedEntities = new Entity[capacity];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: releases the entities and manifolds of the last build so they can be collected
+    private void clearReferences() {
+        Arrays.fill(entities, 0, entityCount, null);
+        Arrays.fill(sortedEntities, 0, entityCount, null);
+        Arrays.fill(sortedManifolds, 0, manifoldCount, null);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    // EFFECTS: returns the index of the first entity of island
+    public int getEntityStart(int island) {
+        return entityStart[island];
+    }
+
+    // EFFECTS: returns the index one past the last entity of island
+    public int getEntityEnd(int island) {
+        return entityStart[island + 1];
+    }
+
+    public Entity getEntity(int index) {
+        return sortedEntities[index];
+    }
+
+    // EFFECTS: returns the index of the first manifold of island
+    public int getManifoldStart(int island) {
+        return manifoldStart[island];
+    }
+
+    // EFFECTS: returns the index one past the last manifold of island
+    public int getManifoldEnd(int island) {
+        return manifoldStart[island + 1];
+    }
+
+    public Manifold getManifold(int index) {
+        return sortedManifolds[index];
+    }
+
+}
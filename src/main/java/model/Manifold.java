@@ -4,7 +4,9 @@ import model.helpers.Pair;
 import model.helpers.Vector2;
 
 /**
- * A Collision class that, when constructed, takes a pair of Entities and determines if it is a collision
+ * A Collision class that, when constructed, takes a pair of Entities and determines if it is a collision.
+ * A manifold can be kept across steps and updated, carrying the impulse the solver accumulated
+ * for it so the next step can start from there.
  *
  * Help taken for the collisions from:
  * <a href="https://code.tutsplus.com/series/how-to-create-a-custom-physics-engine--gamedev-12715">...</a>
@@ -12,36 +14,148 @@ import model.helpers.Vector2;
 
 public class Manifold {
 
-    private final Entity entityA;
-    private final Entity entityB;
-    private Vector2 normal;
+    // the entities are kept as handles rather than store indices, which change whenever a store
+    // frees a row or an entity moves to another store while the manifold is cached
+    private Entity entityA;
+    private Entity entityB;
+    // normal from A to B and depth of the collision, meaningful while isCollision
+    private double normalX;
+    private double normalY;
     private double depth;
     private boolean isCollision = false;
 
+    // solver state carried from one step to the next
+    private double accumulatedImpulse;
+    private double targetVelocity;
+    private int lastStep;
+
     // MODIFIES: this
     // EFFECTS: takes a pair and determines if it is a collision
     public Manifold(Pair pair) {
+        this(pair.getEntityA(), pair.getEntityB());
+    }
 
-        this.entityA = pair.getEntityA();
-        this.entityB = pair.getEntityB();
-        this.normal = null;
-        this.depth = 0.0;
-        handleIsCollision(pair);
+    // MODIFIES: this
+    // EFFECTS: takes two entities and determines if they collide
+    public Manifold(Entity entityA, Entity entityB) {
+        this(entityA, entityB, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes two entities and, if evaluate, determines if they collide. otherwise the
+    //          manifold is not a collision until update is called
+    Manifold(Entity entityA, Entity entityB, boolean evaluate) {
+
+        this.entityA = entityA;
+        this.entityB = entityB;
+        this.accumulatedImpulse = 0.0;
+        this.targetVelocity = 0.0;
+        if (evaluate) {
+            update();
+        }
+
+    }
+
+    // MODIFIES: this
+    // EFFECTS: determines again whether the entities collide, from their current positions.
+    //          the accumulated impulse is dropped if they no longer do
+    public void update() {
+        clearNormal();
+        if (boundsApart()) {
+            this.isCollision = false;
+        } else {
+            handleIsCollision();
+        }
+        if (!isCollision) {
+            this.accumulatedImpulse = 0.0;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: turns the manifold into a fresh one for the entities, not a collision until
+    //          update is called. null entities leave it unused in a pool
+    void reset(Entity entityA, Entity entityB) {
+        this.entityA = entityA;
+        this.entityB = entityB;
+        this.accumulatedImpulse = 0.0;
+        this.targetVelocity = 0.0;
+        this.lastStep = 0;
+        clearNormal();
+        this.isCollision = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the entities do not collide, as update would after finding them
+    //          apart, for a pair already tested elsewhere
+    void separate() {
+        clearNormal();
+        this.isCollision = false;
+        this.accumulatedImpulse = 0.0;
+    }
+
+    // REQUIRES: both entities are circles
+    // MODIFIES: this
+    // EFFECTS: update for a pair of circles, without checking the shapes
+    void updateCircleCircle() {
+        clearNormal();
+        this.isCollision = !boundsApart() && circleIntersectCircle(entityA, entityB);
+        if (!isCollision) {
+            this.accumulatedImpulse = 0.0;
+        }
+    }
+
+    // REQUIRES: entity A is a circle and entity B is a box
+    // MODIFIES: this
+    // EFFECTS: update for a circle and a box, without checking the shapes
+    void updateCircleBox() {
+        clearNormal();
+        this.isCollision = !boundsApart() && boxIntersectCircle(entityB, entityA, false);
+        if (!isCollision) {
+            this.accumulatedImpulse = 0.0;
+        }
+    }
+
+    // REQUIRES: entity A is a box and entity B is a circle
+    // MODIFIES: this
+    // EFFECTS: update for a box and a circle, without checking the shapes
+    void updateBoxCircle() {
+        clearNormal();
+        this.isCollision = !boundsApart() && boxIntersectCircle(entityA, entityB, true);
+        if (!isCollision) {
+            this.accumulatedImpulse = 0.0;
+        }
+    }
+
+    // REQUIRES: both entities are boxes
+    // MODIFIES: this
+    // EFFECTS: update for a pair of boxes, without checking the shapes
+    void updateBoxBox() {
+        clearNormal();
+        this.isCollision = !boundsApart() && boxIntersectsBox(entityA, entityB);
+        if (!isCollision) {
+            this.accumulatedImpulse = 0.0;
+        }
+    }
 
+    // EFFECTS: returns true if the bounding boxes of the entities are clear of each other, which
+    //          rules out a collision before any exact shape test
+    private boolean boundsApart() {
+        return entityA.getMaxX() < entityB.getMinX() || entityB.getMaxX() < entityA.getMinX()
+                || entityA.getMaxY() < entityB.getMinY() || entityB.getMaxY() < entityA.getMinY();
     }
 
     // EFFECTS: checks type of collision and determines whether it is a collision
-    private void handleIsCollision(Pair pair) {
+    private void handleIsCollision() {
 
-        if (pair.getEntityA().getEntityType() == Entity.EntityType.CIRCLE) {
-            if (pair.getEntityB().getEntityType() == Entity.EntityType.CIRCLE) {
+        if (entityA.getEntityType() == Entity.EntityType.CIRCLE) {
+            if (entityB.getEntityType() == Entity.EntityType.CIRCLE) {
                 this.isCollision = circleIntersectCircle(entityA, entityB); // circle + circle
             } else {
                 // circle + box, box is not first parameter
                 this.isCollision = boxIntersectCircle(entityB, entityA, false);
             }
         } else {
-            if (pair.getEntityB().getEntityType() == Entity.EntityType.CIRCLE) {
+            if (entityB.getEntityType() == Entity.EntityType.CIRCLE) {
                 // box + circle, box is first parameter
                 this.isCollision = boxIntersectCircle(entityA, entityB, true);
             } else {
@@ -58,30 +172,29 @@ public class Manifold {
     @SuppressWarnings("methodlength")
     private boolean boxIntersectsBox(Entity a, Entity b) {
 
-        // vector from A to B
-        Vector2 centerA = Vector2.add(a.getPosition(), new Vector2(a.getWidth() / 2, a.getHeight() / 2));
-        Vector2 centerB = Vector2.add(b.getPosition(), new Vector2(b.getWidth() / 2, b.getHeight() / 2));
-        Vector2 dist = Vector2.subtract(centerB, centerA);
+        // vector from A to B, between the centers
+        double distX = b.getCenterX() - a.getCenterX();
+        double distY = b.getCenterY() - a.getCenterY();
 
         // calculate the overlap on the x-axis and y-axis
-        double overlapX = ((a.getWidth() + b.getWidth()) / 2) - Math.abs(dist.getComponentX());
-        double overlapY = ((a.getHeight() + b.getHeight()) / 2) - Math.abs(dist.getComponentY());
+        double overlapX = ((a.getWidth() + b.getWidth()) / 2) - Math.abs(distX);
+        double overlapY = ((a.getHeight() + b.getHeight()) / 2) - Math.abs(distY);
 
         // if both > 0, there is intersection
         if (overlapX > 0 && overlapY > 0) {
             // find the axis of the least penetration
             if (overlapX < overlapY) {
-                if (dist.getComponentX() < 0) { //
-                    this.normal = new Vector2(-1, 0);
+                if (distX < 0) { //
+                    setNormal(-1, 0);
                 } else {
-                    this.normal = new Vector2(1,0);
+                    setNormal(1, 0);
                 }
                 this.depth = overlapX;
             } else {
-                if (dist.getComponentY() < 0) {
-                    this.normal = new Vector2(0, -1);
+                if (distY < 0) {
+                    setNormal(0, -1);
                 } else {
-                    this.normal = new Vector2(0,1);
+                    setNormal(0, 1);
                 }
                 this.depth = overlapY;
             }
@@ -97,20 +210,21 @@ public class Manifold {
     private boolean circleIntersectCircle(Entity a, Entity b) {
 
         // distance from one circle to another
-        Vector2 dist = Vector2.subtract(Vector2.add(b.getPosition(), new Vector2(b.getRadius(), b.getRadius())),
-                Vector2.add(a.getPosition(), new Vector2(a.getRadius(), a.getRadius())));
+        double distX = b.getCenterX() - a.getCenterX();
+        double distY = b.getCenterY() - a.getCenterY();
         double radii = a.getRadius() + b.getRadius();
 
         // test intersection, false if not intersecting
-        if (Vector2.lengthSquared(dist) >= (radii * radii)) {
+        if ((distX * distX) + (distY * distY) >= (radii * radii)) {
             return false;
         }
 
-        double distance = Vector2.distance(a.getPosition(), b.getPosition());
+        double cornerX = b.getPositionX() - a.getPositionX();
+        double cornerY = b.getPositionY() - a.getPositionY();
+        double distance = Math.sqrt((cornerX * cornerX) + (cornerY * cornerY));
 
         // normal vector is pointing from posA to posB
-        this.normal = Vector2.normalize(dist);
-        this.normal = Vector2.scale(this.normal, 1);
+        setUnitNormal(distX, distY);
         // depth = how much we need to move apart
         this.depth = radii - distance;
 
@@ -122,42 +236,62 @@ public class Manifold {
     @SuppressWarnings("methodlength")
     private boolean boxIntersectCircle(Entity box, Entity circle, boolean isBoxFirst) {
         // vector from box to circle
-        Vector2 boxCenter = new Vector2(box.getPosition().getComponentX() + (box.getWidth() / 2),
-                box.getPosition().getComponentY() + (box.getHeight() / 2));
-        Vector2 circleCenter = new Vector2(circle.getPosition().getComponentX() + circle.getRadius(),
-                circle.getPosition().getComponentY() + circle.getRadius());
-        Vector2 dist = Vector2.subtract(circleCenter, boxCenter);
+        double boxCenterX = box.getCenterX();
+        double boxCenterY = box.getCenterY();
+        double circleCenterX = circle.getCenterX();
+        double circleCenterY = circle.getCenterY();
 
         // closest point on box to center of circle
-        Vector2 clamped = new Vector2(dist.getComponentX(), dist.getComponentY());
-
         // clamp the point of circle to the edges of box
-        clamped.setComponentX(Math.max(-(box.getWidth() / 2),
-                Math.min((box.getWidth() / 2), clamped.getComponentX())));
-        clamped.setComponentY(Math.max(-(box.getHeight() / 2),
-                Math.min((box.getHeight() / 2), clamped.getComponentY())));
+        double clampedX = Math.max(-(box.getWidth() / 2),
+                Math.min((box.getWidth() / 2), circleCenterX - boxCenterX));
+        double clampedY = Math.max(-(box.getHeight() / 2),
+                Math.min((box.getHeight() / 2), circleCenterY - boxCenterY));
 
-        Vector2 closest = Vector2.add(boxCenter, clamped);
-        Vector2 difference = Vector2.subtract(closest, circleCenter);
-        double length = Vector2.length(difference);
+        double differenceX = (boxCenterX + clampedX) - circleCenterX;
+        double differenceY = (boxCenterY + clampedY) - circleCenterY;
+        double length = Math.sqrt((differenceX * differenceX) + (differenceY * differenceY));
 
         // tests intersection, if false then not intersecting
         if (length >= circle.getRadius()) {
-            this.normal = null;
             return false;
         }
 
         // if box is first parameter, reverse the normal vector
+        setUnitNormal(differenceX, differenceY);
         if (isBoxFirst) {
-            this.normal = Vector2.scale(Vector2.normalize(difference), -1);
-        } else {
-            this.normal = Vector2.normalize(difference);
+            setNormal(normalX * -1, normalY * -1);
         }
         this.depth = circle.getRadius() - length;
 
         return true;
     }
 
+    // MODIFIES: this
+    // EFFECTS: sets the normal to (x, y)
+    private void setNormal(double x, double y) {
+        this.normalX = x;
+        this.normalY = y;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the normal to (x, y) scaled to unit length, a zero vector stays zero
+    private void setUnitNormal(double x, double y) {
+        double length = Math.sqrt((x * x) + (y * y));
+        if (length != 0.0) {
+            setNormal(x / length, y / length);
+        } else {
+            setNormal(x, y);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: clears the normal and depth
+    private void clearNormal() {
+        setNormal(0.0, 0.0);
+        this.depth = 0.0;
+    }
+
     // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
 
     public Entity getEntityA() {
@@ -168,8 +302,17 @@ public class Manifold {
         return entityB;
     }
 
+    // EFFECTS: returns a copy of the normal, null if the entities do not collide
     public Vector2 getNormal() {
-        return normal;
+        return isCollision ? new Vector2(normalX, normalY) : null;
+    }
+
+    public double getNormalX() {
+        return normalX;
+    }
+
+    public double getNormalY() {
+        return normalY;
     }
 
     public double getDepth() {
@@ -179,4 +322,32 @@ public class Manifold {
     public boolean isCollision() {
         return isCollision;
     }
+
+    public long getKey() {
+        return Pair.key(entityA, entityB);
+    }
+
+    public double getAccumulatedImpulse() {
+        return accumulatedImpulse;
+    }
+
+    public void setAccumulatedImpulse(double accumulatedImpulse) {
+        this.accumulatedImpulse = accumulatedImpulse;
+    }
+
+    public double getTargetVelocity() {
+        return targetVelocity;
+    }
+
+    public void setTargetVelocity(double targetVelocity) {
+        this.targetVelocity = targetVelocity;
+    }
+
+    public int getLastStep() {
+        return lastStep;
+    }
+
+    public void setLastStep(int lastStep) {
+        this.lastStep = lastStep;
+    }
 }
@@ -0,0 +1,61 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Recycles the manifolds of pairs that stopped being reported, so a new pair reuses an old
+ * manifold instead of allocating one. The pool only creates a manifold when every manifold it
+ * created is in use, which happens only when the number of live contacts reaches a new high.
+ */
+public class ManifoldPool {
+
+    private Manifold[] free;
+    private int freeCount;
+    private int created;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty pool
+    public ManifoldPool() {
+        this.free = new Manifold[16];
+        this.freeCount = 0;
+        this.created = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a fresh manifold for a and b, reusing a recycled one if there is any.
+    //          it is not a collision until updated
+    public Manifold obtain(Entity a, Entity b) {
+        if (freeCount == 0) {
+            created++;
+            return new Manifold(a, b, false);
+        }
+        Manifold manifold = free[--freeCount];
+        free[freeCount] = null;
+        manifold.reset(a, b);
+        return manifold;
+    }
+
+    // REQUIRES: manifold was obtained from this pool and is no longer used
+    // MODIFIES: this, manifold
+    // EFFECTS: takes manifold back, dropping its entities so they can be collected
+    public void recycle(Manifold manifold) {
+        manifold.reset(null, null);
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = manifold;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // EFFECTS: returns the number of manifolds this pool ever created
+    public int getCreated() {
+        return created;
+    }
+
+    // EFFECTS: returns the number of manifolds waiting to be reused
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+}
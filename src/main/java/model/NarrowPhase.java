@@ -0,0 +1,249 @@
+package model;
+
+import model.helpers.PairBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The second stage of collision detection, which runs the exact shape tests on the pairs the
+ * broadphase reported. The pairs are first sorted into buckets by the shapes of their entities,
+ * and each bucket runs the one shape test it needs in a loop of its own, so no loop switches
+ * between shape tests from one pair to the next.
+ *
+ * The shape tests only read entity state, so with an executor the sorted pairs are split into
+ * chunks that are tested in parallel. The collisions are collected in pair order once every test
+ * is done, so they come out in the same order however the pairs were tested.
+ *
+ * When vectorized, the circle-circle pairs are first tested for overlap a lane of pairs at a
+ * time, and only the pairs that overlap go through the full shape test.
+ */
+public class NarrowPhase {
+
+    // # of pairs each task tests
+    public static final int CHUNK_SIZE = 512;
+
+    // buckets of pairs by the shapes of entity A and entity B, in the order they are sorted
+    private static final int CIRCLE_CIRCLE = 0;
+    private static final int CIRCLE_BOX = 1;
+    private static final int BOX_CIRCLE = 2;
+    private static final int BOX_BOX = 3;
+    private static final int BUCKETS = 4;
+
+    private Executor executor;
+
+    // the manifolds of the current pairs
+    private final ArrayList<Manifold> candidates;
+    private final ArrayList<CompletableFuture<Void>> tasks;
+
+    // candidate indexes sorted by bucket, bucketStart[b] to bucketStart[b + 1] is bucket b
+    private int[] bucketOf;
+    private int[] sorted;
+    private final int[] bucketStart;
+
+    // whether circle pairs are tested with the vector kernel, and which sorted pairs it found apart
+    private boolean vectorized;
+    private boolean[] separated;
+
+    // the corner and radius of each circle of the circle-circle bucket, for the vector kernel
+    private double[] circleAX;
+    private double[] circleAY;
+    private double[] circleAR;
+    private double[] circleBX;
+    private double[] circleBY;
+    private double[] circleBR;
+
+    // MODIFIES: this
+    // EFFECTS: constructs a narrowphase that tests every pair on the calling thread
+    public NarrowPhase() {
+        this.executor = null;
+        this.candidates = new ArrayList<>();
+        this.tasks = new ArrayList<>();
+        this.bucketStart = new int[BUCKETS + 1];
+        this.vectorized = false;
+        allocate(16);
+    }
+
+    // MODIFIES: this, contacts, collisions
+    // EFFECTS: brings the manifold of every pair in contacts up to date and adds those that are a
+    //          collision to collisions, in the order of pairs
+    public void collide(PairBuffer pairs, ContactCache contacts, List<Manifold> collisions) {
+        // the cache is not thread safe, so manifolds are looked up before any test runs
+        candidates.clear();
+        for (int i = 0; i < pairs.size(); i++) {
+            candidates.add(contacts.acquire(pairs.getEntityA(i), pairs.getEntityB(i), pairs.getKey(i)));
+        }
+        sortByShape();
+        if (vectorized) {
+            separateCircles();
+        }
+
+        int chunks = (candidates.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (executor == null || chunks < 2) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                collideChunk(chunk);
+            }
+        } else {
+            // the calling thread tests the first chunk itself rather than wait idle
+            tasks.clear();
+            for (int chunk = 1; chunk < chunks; chunk++) {
+                int index = chunk;
+                tasks.add(CompletableFuture.runAsync(() -> collideChunk(index), executor));
+            }
+            collideChunk(0);
+            for (CompletableFuture<Void> task : tasks) {
+                task.join();
+            }
+        }
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Manifold manifold = candidates.get(i);
+            if (manifold.isCollision()) {
+                collisions.add(manifold);
+            }
+        }
+        candidates.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counting sort of the candidates by bucket, keeping their order within each bucket
+    private void sortByShape() {
+        int count = candidates.size();
+        if (sorted.length < count) {
+            allocate(count * 2);
+        }
+        for (int bucket = 0; bucket <= BUCKETS; bucket++) {
+            bucketStart[bucket] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            Manifold manifold = candidates.get(i);
+            int bucket = (manifold.getEntityA().getEntityType() == Entity.EntityType.BOX ? BOX_CIRCLE : 0)
+                    + (manifold.getEntityB().getEntityType() == Entity.EntityType.BOX ? CIRCLE_BOX : 0);
+            bucketOf[i] = bucket;
+            bucketStart[bucket + 1]++;
+        }
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            bucketStart[bucket + 1] += bucketStart[bucket];
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            sorted[--bucketStart[bucketOf[i] + 1]] = i;
+        }
+        // the placement loop moved every start back by one bucket, shift them forward again
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            bucketStart[bucket] = bucketStart[bucket + 1];
+        }
+        bucketStart[BUCKETS] = count;
+    }
+
+    // MODIFIES: manifold
+    // EFFECTS: updates the manifolds of the sorted pairs in chunk, one bucket after the other
+    private void collideChunk(int chunk) {
+        int start = chunk * CHUNK_SIZE;
+        int end = Math.min(candidates.size(), start + CHUNK_SIZE);
+        collideCircleCircle(Math.max(start, bucketStart[CIRCLE_CIRCLE]), Math.min(end, bucketStart[CIRCLE_BOX]));
+        collideCircleBox(Math.max(start, bucketStart[CIRCLE_BOX]), Math.min(end, bucketStart[BOX_CIRCLE]));
+        collideBoxCircle(Math.max(start, bucketStart[BOX_CIRCLE]), Math.min(end, bucketStart[BOX_BOX]));
+        collideBoxBox(Math.max(start, bucketStart[BOX_BOX]), Math.min(end, bucketStart[BUCKETS]));
+    }
+
+    // MODIFIES: manifold
+    // EFFECTS: updates the circle-circle manifolds from sorted index from up to to
+    private void collideCircleCircle(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (vectorized && separated[i]) {
+                candidates.get(sorted[i]).separate();
+            } else {
+                candidates.get(sorted[i]).updateCircleCircle();
+            }
+        }
+    }
+
+    // MODIFIES: manifold
+    // EFFECTS: updates the circle-box manifolds from sorted index from up to to
+    private void collideCircleBox(int from, int to) {
+        for (int i = from; i < to; i++) {
+            candidates.get(sorted[i]).updateCircleBox();
+        }
+    }
+
+    // MODIFIES: manifold
+    // EFFECTS: updates the box-circle manifolds from sorted index from up to to
+    private void collideBoxCircle(int from, int to) {
+        for (int i = from; i < to; i++) {
+            candidates.get(sorted[i]).updateBoxCircle();
+        }
+    }
+
+    // MODIFIES: manifold
+    // EFFECTS: updates the box-box manifolds from sorted index from up to to
+    private void collideBoxBox(int from, int to) {
+        for (int i = from; i < to; i++) {
+            candidates.get(sorted[i]).updateBoxBox();
+        }
+    }
+
+    // REQUIRES: the candidates are sorted by shape
+    // MODIFIES: this
+    // EFFECTS: marks every circle-circle pair whose two circles are clear of each other as
+    //          separated, testing the pairs a lane at a time
+    private void separateCircles() {
+        int circles = bucketStart[CIRCLE_BOX];
+        for (int i = 0; i < circles; i++) {
+            Manifold manifold = candidates.get(sorted[i]);
+            Entity a = manifold.getEntityA();
+            Entity b = manifold.getEntityB();
+            circleAX[i] = a.getPositionX();
+            circleAY[i] = a.getPositionY();
+            circleAR[i] = a.getRadius();
+            circleBX[i] = b.getPositionX();
+            circleBY[i] = b.getPositionY();
+            circleBR[i] = b.getRadius();
+        }
+
+        int start = VectorKernels.circlesApart(circles, circleAX, circleAY, circleAR,
+                circleBX, circleBY, circleBR, separated);
+        for (int i = start; i < circles; i++) {
+            double distX = (circleBX[i] + circleBR[i]) - (circleAX[i] + circleAR[i]);
+            double distY = (circleBY[i] + circleBR[i]) - (circleAY[i] + circleAR[i]);
+            double radii = circleAR[i] + circleBR[i];
+            separated[i] = (distX * distX) + (distY * distY) >= (radii * radii);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the per-pair arrays with ones holding capacity pairs
+    private void allocate(int capacity) {
+        bucketOf = new int[capacity];
+        sorted = new int[capacity];
+        separated = new boolean[capacity];
+        circleAX = new double[capacity];
+        circleAY = new double[capacity];
+        circleAR = new double[capacity];
+        circleBX = new double[capacity];
+        circleBY = new double[capacity];
+        circleBR = new double[capacity];
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    // EFFECTS: sets the executor chunks of pairs are tested on, null tests them on the calling thread
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    // EFFECTS: tests circle pairs with the Vector API if vectorized and the JVM has it
+    public void setVectorized(boolean vectorized) {
+        this.vectorized = vectorized && VectorKernels.isAvailable();
+    }
+
+}
@@ -0,0 +1,400 @@
+package model;
+
+import model.helpers.LongHashMap;
+import model.helpers.Vector2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Steps one large world on several threads by splitting it into vertical strips, each stepped
+ * by an engine of its own. Every entity is owned by the strip its center is in. An entity within
+ * margin of another strip is mirrored there as a ghost, a copy that is brought up to date with
+ * its owner before every step and whose own results are thrown away, so entities on either side
+ * of a border still push on each other.
+ *
+ * Entities that move into another strip change owner between steps, so while a step runs every
+ * engine only touches its own entities and the strips can be stepped in parallel. Entities away
+ * from the borders are simulated as they would be by one engine; near a border the two sides see
+ * each other one step late, so results match the unpartitioned engine only within a tolerance.
+ *
+ * The set of entities is fixed at construction: adding or removing one, from the world or from the
+ * engine of a strip, makes the next step throw IllegalStateException.
+ */
+public class PartitionedEngine {
+
+    // every entity of the world as given, the entities it held at construction by world index,
+    // the strip owning each, and the world index of each by id
+    private final ArrayList<Entity> entities;
+    private final Entity[] world;
+    private final int[] owner;
+    private final LongHashMap<Integer> indices;
+
+    // strip r spans from borders[r - 1] to borders[r], the outer strips are unbounded
+    private final double[] borders;
+    private final double margin;
+    private final Region[] regions;
+
+    // strips from ghostStart[i] up to ghostEnd[i] are within margin of entity i, and hold a ghost of it
+    // unless they own it. static entities never move, so only the first step places their ghosts
+    private final int[] ghostStart;
+    private final int[] ghostEnd;
+    private boolean placedStatic;
+
+    private Executor executor;
+    private final ArrayList<CompletableFuture<Void>> tasks;
+
+    /**
+     * One strip: the engine stepping it, and the ghosts of other strips' entities it holds. Its
+     * entities are kept in any order, so one leaves by swapping the last into its place.
+     */
+    private static class Region {
+
+        private final ArrayList<Entity> entities;
+        private final PhysicsEngine engine;
+        // by world index, what the strip holds of each entity it holds. worldIndices is the
+        // reverse, the world index behind each slot of entities
+        private final LongHashMap<Held> held;
+        private int[] worldIndices;
+        private int ghostCount;
+        // ghosts put to sleep because the entity they mirror is asleep
+        private final SleepingIslands sleepingGhosts;
+
+        Region() {
+            this.entities = new ArrayList<>();
+            this.engine = new PhysicsEngine(entities);
+            this.held = new LongHashMap<>();
+            this.worldIndices = new int[16];
+            this.ghostCount = 0;
+            this.sleepingGhosts = new SleepingIslands();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds entity, or the ghost of entity i of the world, to the strip
+        void add(int i, Entity entity, boolean ghost) {
+            int slot = entities.size();
+            if (slot == worldIndices.length) {
+                worldIndices = Arrays.copyOf(worldIndices, slot * 2);
+            }
+            entities.add(entity);
+            worldIndices[slot] = i;
+            held.put(i, new Held(entity, ghost, slot));
+        }
+
+        // MODIFIES: this
+        // EFFECTS: removes entity i of the world, or its ghost, from the strip, moving the last
+        //          entity of the strip into its slot
+        void remove(int i) {
+            int slot = held.remove(i).slot;
+            int last = entities.size() - 1;
+            if (slot != last) {
+                entities.set(slot, entities.get(last));
+                worldIndices[slot] = worldIndices[last];
+                held.get(worldIndices[slot]).slot = slot;
+            }
+            entities.remove(last);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds ghost as the ghost of entity i of the world
+        void addGhost(int i, Entity ghost) {
+            ghostCount++;
+            add(i, ghost, true);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: removes the ghost of entity i of the world
+        void removeGhost(int i) {
+            ghostCount--;
+            remove(i);
+        }
+
+        // EFFECTS: returns the ghost the strip holds of entity i of the world, or null if none
+        Entity ghostOf(int i) {
+            Held entry = held.get(i);
+            return entry != null && entry.ghost ? entry.entity : null;
+        }
+    }
+
+    /**
+     * An entity of the world, or its ghost, held by a strip, and its slot in the strip's entities.
+     */
+    private static class Held {
+
+        private final Entity entity;
+        private final boolean ghost;
+        private int slot;
+
+        Held(Entity entity, boolean ghost, int slot) {
+            this.entity = entity;
+            this.ghost = ghost;
+            this.slot = slot;
+        }
+    }
+
+    // REQUIRES: regions >= 1, margin >= 0
+    // MODIFIES: this
+    // EFFECTS: constructs an engine over entities split into regions strips holding about as
+    //          many moving entities each, with ghosts of entities within margin of a strip
+    public PartitionedEngine(ArrayList<Entity> entities, int regions, double margin) {
+        this(entities, balancedBorders(entities, regions), margin);
+    }
+
+    // REQUIRES: borders are in increasing order, margin >= 0
+    // MODIFIES: this
+    // EFFECTS: constructs an engine over entities split into strips at the x coordinates in
+    //          borders, with ghosts of entities within margin of a strip
+    public PartitionedEngine(ArrayList<Entity> entities, double[] borders, double margin) {
+        this.entities = entities;
+        this.world = entities.toArray(new Entity[0]);
+        this.owner = new int[entities.size()];
+        this.indices = new LongHashMap<>();
+        this.borders = borders.clone();
+        this.margin = margin;
+        this.regions = new Region[borders.length + 1];
+        this.ghostStart = new int[entities.size()];
+        this.ghostEnd = new int[entities.size()];
+        this.placedStatic = false;
+        this.executor = null;
+        this.tasks = new ArrayList<>();
+        for (int r = 0; r < regions.length; r++) {
+            regions[r] = new Region();
+        }
+        for (int i = 0; i < world.length; i++) {
+            Entity entity = world[i];
+            indices.put(entity.getId(), i);
+            owner[i] = regionOf(entity.getCenterX());
+            regions[owner[i]].add(i, entity, false);
+        }
+    }
+
+    // REQUIRES: regions >= 1
+    // EFFECTS: returns the borders that split the moving entities of entities into regions strips
+    //          of about the same size
+    public static double[] balancedBorders(List<Entity> entities, int regions) {
+        double[] centers = new double[entities.size()];
+        int count = 0;
+        for (Entity entity : entities) {
+            if (!entity.isStatic()) {
+                centers[count++] = entity.getCenterX();
+            }
+        }
+        Arrays.sort(centers, 0, count);
+
+        double[] borders = new double[regions - 1];
+        for (int r = 1; r < regions; r++) {
+            borders[r - 1] = count == 0 ? 0.0 : centers[Math.min(count - 1, (int) ((long) count * r / regions))];
+        }
+        return borders;
+    }
+
+    // MODIFIES: this, entity
+    // EFFECTS: hands entities that moved into another strip over to it, brings the ghosts up to
+    //          date, then advances every strip by PhysicsEngine.DT. throws IllegalStateException
+    //          if an entity was added to or removed from the world or a strip since construction
+    public void updatePhysics() {
+        checkUnchanged();
+        migrate();
+        updateGhosts();
+
+        if (executor == null) {
+            for (Region region : regions) {
+                region.engine.updatePhysics();
+            }
+        } else {
+            // the calling thread steps the first strip itself rather than wait idle
+            tasks.clear();
+            for (int r = 1; r < regions.length; r++) {
+                PhysicsEngine engine = regions[r].engine;
+                tasks.add(CompletableFuture.runAsync(engine::updatePhysics, executor));
+            }
+            regions[0].engine.updatePhysics();
+            for (CompletableFuture<Void> task : tasks) {
+                task.join();
+            }
+        }
+    }
+
+    // EFFECTS: throws IllegalStateException if the entities of the world or of a strip are not
+    //          the ones this engine put there
+    private void checkUnchanged() {
+        if (entities.size() != world.length) {
+            throw new IllegalStateException("entities were added to or removed from the world");
+        }
+        for (int i = 0; i < world.length; i++) {
+            if (entities.get(i) != world[i]) {
+                throw new IllegalStateException("entities were replaced in the world");
+            }
+        }
+        for (Region region : regions) {
+            if (region.entities.size() != region.held.size()) {
+                throw new IllegalStateException("entities were added to or removed from a strip");
+            }
+        }
+    }
+
+    // MODIFIES: this, entity
+    // EFFECTS: moves every entity whose center left the strip owning it to the strip it is now in,
+    //          replacing the ghost of it that strip held
+    private void migrate() {
+        for (int i = 0; i < world.length; i++) {
+            Entity entity = world[i];
+            if (!entity.isAwake()) {
+                continue;
+            }
+            int target = regionOf(entity.getCenterX());
+            if (target == owner[i]) {
+                continue;
+            }
+
+            Region from = regions[owner[i]];
+            Region to = regions[target];
+            from.remove(i);
+            if (to.ghostOf(i) != null) {
+                to.removeGhost(i);
+            }
+            to.add(i, entity, false);
+            // moved into its new store here, so no strip reaches into another's store mid-step
+            to.engine.getStore().adopt(entity);
+            owner[i] = target;
+        }
+    }
+
+    // MODIFIES: this, entity
+    // EFFECTS: gives every strip a ghost of each entity of another strip within margin of it,
+    //          drops ghosts of entities that moved away, and copies the state of every moving
+    //          entity onto its ghosts
+    private void updateGhosts() {
+        for (int i = 0; i < world.length; i++) {
+            if (placedStatic && world[i].isStatic()) {
+                continue;
+            }
+            updateGhosts(i);
+        }
+        placedStatic = true;
+    }
+
+    // MODIFIES: this, entity
+    // EFFECTS: brings the ghosts of entity i of the world up to date, visiting only the strips
+    //          it was or is within margin of
+    private void updateGhosts(int i) {
+        Entity entity = world[i];
+        int start = firstNear(entity);
+        int end = lastNear(entity) + 1;
+        for (int r = Math.min(start, ghostStart[i]); r < Math.max(end, ghostEnd[i]); r++) {
+            Region region = regions[r];
+            Entity ghost = region.ghostOf(i);
+            boolean near = r >= start && r < end && r != owner[i];
+            if (near && ghost == null) {
+                region.addGhost(i, createGhost(entity, region.sleepingGhosts));
+            } else if (!near && ghost != null) {
+                region.removeGhost(i);
+            } else if (near && !entity.isStatic()) {
+                copyState(entity, ghost, region.sleepingGhosts);
+            }
+        }
+        ghostStart[i] = start;
+        ghostEnd[i] = end;
+    }
+
+    // MODIFIES: sleepingGhosts
+    // EFFECTS: returns a new entity with the shape, mass and state of entity, put to sleep in
+    //          sleepingGhosts if entity is asleep
+    private static Entity createGhost(Entity entity, SleepingIslands sleepingGhosts) {
+        Entity ghost = new Entity(new Vector2(entity.getPositionX(), entity.getPositionY()),
+                entity.getRestitution(), entity.getMass(), entity.getRadius(),
+                entity.getWidth(), entity.getHeight(), entity.getEntityType());
+        if (entity.isStatic()) {
+            ghost.setStatic();
+        } else {
+            copyState(entity, ghost, sleepingGhosts);
+        }
+        return ghost;
+    }
+
+    // MODIFIES: ghost, sleepingGhosts
+    // EFFECTS: sets the position, velocity and sleep of ghost to those of entity, putting ghost
+    //          to sleep in sleepingGhosts
+    private static void copyState(Entity entity, Entity ghost, SleepingIslands sleepingGhosts) {
+        if (entity.isSleeping() && !ghost.isSleeping()) {
+            sleepingGhosts.sleep(ghost);
+        } else if (!entity.isSleeping() && ghost.isSleeping()) {
+            ghost.wake();
+        }
+        ghost.setPosition(entity.getPositionX(), entity.getPositionY());
+        ghost.setVelocity(entity.getVelocityX(), entity.getVelocityY());
+        ghost.setSleepSteps(entity.getSleepSteps());
+    }
+
+    // EFFECTS: returns the strip x is in
+    private int regionOf(double x) {
+        int region = 0;
+        while (region < borders.length && x >= borders[region]) {
+            region++;
+        }
+        return region;
+    }
+
+    // EFFECTS: returns the first strip entity is within margin of
+    private int firstNear(Entity entity) {
+        int region = 0;
+        while (region < borders.length && borders[region] + margin <= entity.getMinX()) {
+            region++;
+        }
+        return region;
+    }
+
+    // EFFECTS: returns the last strip entity is within margin of
+    private int lastNear(Entity entity) {
+        int region = 0;
+        while (region < borders.length && borders[region] - margin <= entity.getMaxX()) {
+            region++;
+        }
+        return region;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // EFFECTS: returns every entity of the world, without ghosts
+    public ArrayList<Entity> getEntities() {
+        return entities;
+    }
+
+    public int getRegionCount() {
+        return regions.length;
+    }
+
+    // EFFECTS: returns the engine stepping strip r, to configure it. its entities include ghosts,
+    //          and must not be added to or removed from
+    public PhysicsEngine getEngine(int r) {
+        return regions[r].engine;
+    }
+
+    // EFFECTS: returns the number of ghosts strip r held in the last step
+    public int getGhostCount(int r) {
+        return regions[r].ghostCount;
+    }
+
+    // REQUIRES: entity is in getEntities()
+    // EFFECTS: returns the strip owning entity
+    public int getRegionOf(Entity entity) {
+        return owner[indices.get(entity.getId())];
+    }
+
+    public double getMargin() {
+        return margin;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    // EFFECTS: sets the executor strips are stepped on, null steps them on the calling thread
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+}
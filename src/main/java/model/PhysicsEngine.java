@@ -1,11 +1,17 @@
 package model;
 
-import model.helpers.Pair;
+import model.broadphase.BroadPhase;
+import model.broadphase.SweepAndPrune;
+import model.helpers.LongHashSet;
+import model.helpers.PairBuffer;
 import model.helpers.Vector2;
 import model.logs.Event;
 import model.logs.EventLog;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * The main engine that loops and processes all the computations necessary
@@ -18,23 +24,113 @@ import java.util.*;
 public class PhysicsEngine {
 
     public static final double DT = 1.0 / 60.0;
-    public static final double ITERATIONS = 10; // # of solutions for collisions
+    // # of solutions for collisions. warm started contacts settle tall stacks at 8 where they needed
+    // 10; fewer leaves a pile twenty boxes high jittering, so cut it per engine with setConvergence
+    public static final double ITERATIONS = 8;
+    public static final double RESTING_VELOCITY = 20; // contacts approaching slower than this do not bounce
+    public static final int PARALLEL_THRESHOLD = 256; // fewer manifolds than this are solved on one thread
+    public static final int COLOR_BATCH = 64; // # of manifolds of one color a thread resolves at once
+    public static final double SLEEP_VELOCITY = 5; // entities slower than this may fall asleep
+    public static final int SLEEP_STEPS = 30; // # of slow steps before an island falls asleep
     public static final double PENETRATION_ALLOWANCE = 0.05;
     public static final double PENETRATION_CORRECTION = 0.4;
     public static final Vector2 GRAVITY = new Vector2(0.0, 200);
 
     private ArrayList<Entity> entities;
+    private final BroadPhase broadPhase;
+    private final PairBuffer pairs;
+    private final ContactCache contacts;
+    private final NarrowPhase narrowPhase;
+
+    // physical state of every entity in entities
+    private final EntityStore store;
+    private final List<Manifold> manifolds;
+
+    // entities registered with the broadphase, and their ids for quick membership checks
+    private final ArrayList<Entity> trackedEntities;
+    private final LongHashSet trackedIds;
+    private final LongHashSet currentIds;
+
+    // entities connected by manifolds, rebuilt every step for the solver and for sleeping
+    private final Islands islands;
+    private final ContactColoring coloring;
+
+    // sweeps fast circles so they do not pass through entities between steps
+    private final ContinuousCollision continuous;
+
+    // entities the broadphase found in a box, for the sweeps and for waking, and the entities
+    // removed since the last step
+    private final ArrayList<Entity> candidates;
+    private final ArrayList<Entity> removed;
+
+    // islands that came to rest, until something wakes them
+    private final SleepingIslands sleepers;
+
+    // the solver stops once an iteration changes no impulse by convergenceTolerance or more,
+    // after at least minIterations and at most maxIterations iterations
+    private double convergenceTolerance;
+    private int minIterations;
+    private int maxIterations;
+    private int iterationsUsed;
+
+    // length of the next step, picked by timestep after every step if there is one
+    private double stepSize;
+    private AdaptiveTimestep timestep;
+
+    // how collisions are resolved, and the threads the parallel modes run on
+    private SolverMode solverMode;
+    private ForkJoinPool solverPool;
+
+    // picks the sizes of added entities, seeded with setSeed for repeatable scenes
+    private Random random;
 
     // MODIFIES: this
-    // EFFECTS: constructs and initializes engine
+    // EFFECTS: constructs and initializes engine with a sweep and prune broadphase
     public PhysicsEngine(ArrayList<Entity> entities) {
+        this(entities, new SweepAndPrune());
+    }
+
+    // REQUIRES: broadPhase is empty
+    // MODIFIES: this
+    // EFFECTS: constructs and initializes engine with the given broadphase, keeping body state on the heap
+    public PhysicsEngine(ArrayList<Entity> entities, BroadPhase broadPhase) {
+        this(entities, broadPhase, new HeapEntityStore());
+    }
+
+    // REQUIRES: broadPhase and store are empty
+    // MODIFIES: this
+    // EFFECTS: constructs and initializes engine with the given broadphase, keeping body state in store
+    public PhysicsEngine(ArrayList<Entity> entities, BroadPhase broadPhase, EntityStore store) {
         this.entities = entities;
+        this.broadPhase = broadPhase;
+        this.pairs = new PairBuffer();
+        this.contacts = new ContactCache();
+        this.narrowPhase = new NarrowPhase();
+        this.store = store;
+        this.manifolds = new ArrayList<>();
+        this.trackedEntities = new ArrayList<>();
+        this.trackedIds = new LongHashSet();
+        this.currentIds = new LongHashSet();
+        this.islands = new Islands();
+        this.coloring = new ContactColoring();
+        this.continuous = new ContinuousCollision();
+        this.candidates = new ArrayList<>();
+        this.removed = new ArrayList<>();
+        this.sleepers = new SleepingIslands();
+        this.stepSize = DT;
+        this.timestep = null;
+        this.convergenceTolerance = 0.0;
+        this.minIterations = (int) ITERATIONS;
+        this.maxIterations = (int) ITERATIONS;
+        this.iterationsUsed = 0;
+        this.solverMode = SolverMode.SEQUENTIAL;
+        this.solverPool = ForkJoinPool.commonPool();
+        this.random = new Random();
     }
 
     // MODIFIES: this
     // EFFECTS: adds specified Entity of EntityType to entities
     public void addEntity(Entity.EntityType entityType, int x, int y) {
-        Random random = new Random();
         EventLog el = EventLog.getInstance();
         if (entityType == Entity.EntityType.BOX) {
             double width = 20 + random.nextInt(100);
@@ -72,150 +168,562 @@ public class PhysicsEngine {
     }
 
     // MODIFIES: entity, this
-    // EFFECTS: updates physics through forces, collisions, velocities, and positions
+    // EFFECTS: updates physics through forces, collisions, velocities, and positions, advancing
+    //          the simulation by getStepSize()
     public void updatePhysics() {
+        double dt = stepSize;
+
+        // pick up added and removed entities
+        syncEntities();
 
         // apply forces
-        for (Entity entity : entities) {
-            applyForces(entity);
-        }
+        store.applyForces(dt, GRAVITY);
 
         // generate the list of collisions
         List<Manifold> manifolds = generateCollisions(generatePairs());
 
+        // group the entities into islands that can be solved independently
+        islands.build(entities, manifolds);
+
         // resolve collisions * iterations
-        for (int i = 0; i < ITERATIONS; ++i) {
-            for (Manifold manifold : manifolds) {
-                collisionResolution(manifold);
-            }
+        if (solverMode == SolverMode.ISLANDS && islands.getIslandCount() > 1
+                && manifolds.size() >= PARALLEL_THRESHOLD) {
+            IslandSolve islandSolve = new IslandSolve(0, islands.getIslandCount());
+            solverPool.invoke(islandSolve);
+            iterationsUsed = islandSolve.iterations;
+        } else if (solverMode == SolverMode.COLORED && manifolds.size() >= PARALLEL_THRESHOLD) {
+            coloring.build(islands.getEntityCount(), manifolds);
+            solveColored();
+        } else {
+            solve(manifolds);
         }
 
+        // stop fast circles at the first thing in their path
+        sweepFastCircles(dt);
+
         // integrate velocities
-        for (Entity entity : entities) {
-            applyVelocity(entity);
-        }
+        store.applyVelocities(dt);
 
         // correct positions
-        for (Manifold manifold : manifolds) {
-            positionalCorrection(manifold);
+        for (int i = 0; i < manifolds.size(); i++) {
+            positionalCorrection(manifolds.get(i));
         }
 
         // clear all forces
-        for (Entity entity : entities) {
-            entity.getForce().setComponentX(0);
-            entity.getForce().setComponentY(0);
+        store.clearForces();
+
+        // put islands that have come to rest to sleep
+        updateSleep();
+
+        // calm scenes take longer steps, violent ones shorter
+        if (timestep != null) {
+            stepSize = timestep.nextStep(dt, maxSpeed(), maxDepth(manifolds));
         }
 
     }
 
+    // EFFECTS: returns the speed of the fastest awake entity
+    private double maxSpeed() {
+        double maxSquared = 0.0;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (entity.isAwake()) {
+                double velocityX = entity.getVelocityX();
+                double velocityY = entity.getVelocityY();
+                maxSquared = Math.max(maxSquared, (velocityX * velocityX) + (velocityY * velocityY));
+            }
+        }
+        return Math.sqrt(maxSquared);
+    }
+
+    // EFFECTS: returns the depth of the deepest of manifolds
+    private static double maxDepth(List<Manifold> manifolds) {
+        double max = 0.0;
+        for (int i = 0; i < manifolds.size(); i++) {
+            max = Math.max(max, manifolds.get(i).getDepth());
+        }
+        return max;
+    }
+
 
     // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
 
+    // MODIFIES: this
     // EFFECTS: creates a list of pairs of possible collisions without duplicates
-    private List<Pair> generatePairs() {
+    private PairBuffer generatePairs() {
+        broadPhase.update();
+        pairs.clear();
+        broadPhase.queryPairs(pairs);
+        return pairs;
+    }
 
-        List<Pair> pairs = new ArrayList<>();
+    // MODIFIES: this, entity
+    // EFFECTS: moves entities that were added to entities into the store and the broadphase,
+    //          and moves entities that are no longer in entities back out
+    private void syncEntities() {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (trackedIds.add(entity.getId())) {
+                trackedEntities.add(entity);
+                store.adopt(entity);
+                broadPhase.add(entity);
+            }
+        }
 
-        // O(n^2) loop to pair each object together
-        for (Entity x : entities) {
-            for (Entity y : entities) {
+        // only look for removed entities when some are missing
+        if (trackedIds.size() > entities.size()) {
+            currentIds.clear();
+            for (Entity entity : entities) {
+                currentIds.add(entity.getId());
+            }
+            removed.clear();
+            for (int i = trackedEntities.size() - 1; i >= 0; i--) {
+                Entity entity = trackedEntities.get(i);
+                if (!currentIds.contains(entity.getId())) {
+                    trackedIds.remove(entity.getId());
+                    trackedEntities.set(i, trackedEntities.get(trackedEntities.size() - 1));
+                    trackedEntities.remove(trackedEntities.size() - 1);
+                    removed.add(entity);
+                }
+            }
 
-                // skip if checks with self
-                if (x.equals(y)) {
-                    continue;
+            // whatever rested on a removed entity has to fall. the broadphase is asked about every
+            // removed entity before it forgets any of them
+            candidates.clear();
+            for (int i = 0; i < removed.size(); i++) {
+                Entity entity = removed.get(i);
+                broadPhase.queryBox(entity.getMinX(), entity.getMinY(), entity.getMaxX(), entity.getMaxY(),
+                        candidates);
+            }
+            for (int i = 0; i < removed.size(); i++) {
+                Entity entity = removed.get(i);
+                entity.wake();
+                broadPhase.remove(entity);
+                store.release(entity);
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                Entity entity = candidates.get(i);
+                if (entity != null && trackedIds.contains(entity.getId())) {
+                    entity.wake();
                 }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the cached Collision objects of pairs and returns those that are a collision
+    private List<Manifold> generateCollisions(PairBuffer pairs) {
+        manifolds.clear();
+        contacts.beginStep();
+        narrowPhase.collide(pairs, contacts, manifolds);
+
+        // the broadphase only reports pairs with an awake entity, which wakes the other
+        for (int i = 0; i < manifolds.size(); i++) {
+            Manifold manifold = manifolds.get(i);
+            if (manifold.getEntityA().isSleeping()) {
+                manifold.getEntityA().wake();
+            }
+            if (manifold.getEntityB().isSleeping()) {
+                manifold.getEntityB().wake();
+            }
+        }
 
-                pairs.add(new Pair(x, y));
+        // pairs that stopped overlapping lose their manifold
+        contacts.evictStale();
 
+        return manifolds;
+    }
+
+    // MODIFIES: this, manifold, entity
+    // EFFECTS: warm starts manifolds and resolves them in order until they converge
+    private void solve(List<Manifold> manifolds) {
+        // start from the impulses the contacts ended the last step with
+        for (int m = 0; m < manifolds.size(); m++) {
+            warmStart(manifolds.get(m));
+        }
+
+        int iterations = 0;
+        while (iterations < maxIterations) {
+            double largest = 0.0;
+            for (int m = 0; m < manifolds.size(); m++) {
+                largest = Math.max(largest, collisionResolution(manifolds.get(m)));
+            }
+            iterations++;
+            if (hasConverged(iterations, largest)) {
+                break;
             }
         }
+        iterationsUsed = iterations;
+    }
 
-        // removes duplicates
-        Set<Pair> pairSet = new HashSet<>(pairs);
+    // MODIFIES: manifold, entity
+    // EFFECTS: warm starts the manifolds of island and resolves them until they converge, in the
+    //          same order solve would visit them, and returns the number of iterations it took
+    private int solveIsland(int island) {
+        int start = islands.getManifoldStart(island);
+        int end = islands.getManifoldEnd(island);
+        for (int m = start; m < end; m++) {
+            warmStart(islands.getManifold(m));
+        }
 
-        return new ArrayList<>(pairSet);
+        int iterations = 0;
+        while (iterations < maxIterations) {
+            double largest = 0.0;
+            for (int m = start; m < end; m++) {
+                largest = Math.max(largest, collisionResolution(islands.getManifold(m)));
+            }
+            iterations++;
+            if (hasConverged(iterations, largest)) {
+                break;
+            }
+        }
+        return iterations;
+    }
 
+    // EFFECTS: returns true if the solver can stop after iterations iterations, the last of which
+    //          changed no impulse by more than largest
+    private boolean hasConverged(int iterations, double largest) {
+        return iterations >= minIterations && largest < convergenceTolerance;
     }
 
-    // EFFECTS: creates Collision objects out of pairs if pair is a collision
-    private List<Manifold> generateCollisions(List<Pair> pairs) {
-        List<Manifold> manifolds = new ArrayList<>();
+    /**
+     * Solves a range of islands, splitting it in half until the halves are small enough
+     * to be worth solving on one thread.
+     */
+    private class IslandSolve extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        // most iterations any island of the range took, set once computed
+        private int iterations;
 
-        for (Pair pair : pairs) {
-            Manifold manifold = new Manifold(pair);
-            if (manifold.isCollision()) {
-                manifolds.add(manifold);
+        IslandSolve(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int manifoldCount = islands.getManifoldStart(to) - islands.getManifoldStart(from);
+            if (to - from == 1 || manifoldCount < PARALLEL_THRESHOLD) {
+                for (int island = from; island < to; island++) {
+                    iterations = Math.max(iterations, solveIsland(island));
+                }
+                return;
             }
+            int middle = (from + to) >>> 1;
+            IslandSolve left = new IslandSolve(from, middle);
+            IslandSolve right = new IslandSolve(middle, to);
+            invokeAll(left, right);
+            iterations = Math.max(left.iterations, right.iterations);
         }
+    }
 
-        return manifolds;
+    // MODIFIES: this, manifold, entity
+    // EFFECTS: warm starts and resolves the manifolds one color at a time until they converge,
+    //          resolving the manifolds of each color in parallel
+    private void solveColored() {
+        for (int color = 0; color < coloring.getColorCount(); color++) {
+            solveColor(color, true);
+        }
+
+        int iterations = 0;
+        while (iterations < maxIterations) {
+            double largest = 0.0;
+            for (int color = 0; color < coloring.getColorCount(); color++) {
+                largest = Math.max(largest, solveColor(color, false));
+            }
+            iterations++;
+            if (hasConverged(iterations, largest)) {
+                break;
+            }
+        }
+        iterationsUsed = iterations;
+    }
+
+    // MODIFIES: manifold, entity
+    // EFFECTS: warm starts or resolves every manifold of color, returning once all are done with
+    //          the largest change of impulse made
+    private double solveColor(int color, boolean warmStart) {
+        int start = coloring.getColorStart(color);
+        int end = coloring.getColorEnd(color);
+
+        // manifolds in the overflow color can share entities, so they go in order
+        if (coloring.isOverflow(color) || end - start <= COLOR_BATCH) {
+            return solveColorRange(start, end, warmStart);
+        }
+        ColorSolve task = new ColorSolve(start, end, warmStart);
+        solverPool.invoke(task);
+        return task.largest;
+    }
+
+    // MODIFIES: manifold, entity
+    // EFFECTS: warm starts or resolves the colored manifolds from index from to index to, in order,
+    //          and returns the largest change of impulse resolving made
+    private double solveColorRange(int from, int to, boolean warmStart) {
+        double largest = 0.0;
+        for (int m = from; m < to; m++) {
+            if (warmStart) {
+                warmStart(coloring.getManifold(m));
+            } else {
+                largest = Math.max(largest, collisionResolution(coloring.getManifold(m)));
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Warm starts or resolves a range of manifolds of one color, splitting it in half until
+     * the halves fit in one batch.
+     */
+    private class ColorSolve extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final boolean warmStart;
+        // largest change of impulse made in the range, set once computed
+        private double largest;
+
+        ColorSolve(int from, int to, boolean warmStart) {
+            this.from = from;
+            this.to = to;
+            this.warmStart = warmStart;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= COLOR_BATCH) {
+                largest = solveColorRange(from, to, warmStart);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            ColorSolve left = new ColorSolve(from, middle, warmStart);
+            ColorSolve right = new ColorSolve(middle, to, warmStart);
+            invokeAll(left, right);
+            largest = Math.max(left.largest, right.largest);
+        }
     }
 
     // MODIFIES: entity
-    // EFFECTS: applies forces to entity, changing the velocity
-    private void applyForces(Entity entity) {
-        /*
-        v += (1/m * F) * dt
-         */
-        if (entity.isStatic()) {
+    // EFFECTS: sweeps every awake circle that moves far enough in a step of dt to pass through an
+    //          entity along its path, and stops it at the first entity it would touch
+    private void sweepFastCircles(double dt) {
+        // the two farthest any entity moves this step, squared, and the entity moving farthest
+        Entity farthest = null;
+        double farthestMove = 0.0;
+        double secondMove = 0.0;
+        boolean anyFast = false;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!entity.isAwake()) {
+                continue;
+            }
+            double move = moveSquared(entity, dt);
+            if (move > farthestMove) {
+                secondMove = farthestMove;
+                farthestMove = move;
+                farthest = entity;
+            } else if (move > secondMove) {
+                secondMove = move;
+            }
+            anyFast = anyFast || (entity.getEntityType() == Entity.EntityType.CIRCLE
+                    && ContinuousCollision.isFast(entity, dt));
+        }
+        if (!anyFast) {
             return;
         }
-        entity.setVelocity(Vector2.add(entity.getVelocity(),
-                Vector2.scale(entity.getForce(), (DT * 0.5 * entity.getInvMass()))));
-        entity.setVelocity(Vector2.add(entity.getVelocity(), Vector2.scale(GRAVITY, DT * 0.5)));
+
+        for (int i = 0; i < entities.size(); i++) {
+            Entity circle = entities.get(i);
+            if (!circle.isAwake() || circle.getEntityType() != Entity.EntityType.CIRCLE
+                    || !ContinuousCollision.isFast(circle, dt)) {
+                continue;
+            }
+
+            // another entity may move towards the circle by up to reach, and may already have
+            // been moved by up to reach by an earlier impact since the broadphase last saw it
+            double reach = 2 * Math.sqrt(circle == farthest ? secondMove : farthestMove);
+            double moveX = circle.getVelocityX() * dt;
+            double moveY = circle.getVelocityY() * dt;
+            candidates.clear();
+            broadPhase.queryBox(circle.getMinX() + Math.min(moveX, 0) - reach,
+                    circle.getMinY() + Math.min(moveY, 0) - reach,
+                    circle.getMaxX() + Math.max(moveX, 0) + reach,
+                    circle.getMaxY() + Math.max(moveY, 0) + reach, candidates);
+
+            Entity first = null;
+            double firstTime = ContinuousCollision.NO_IMPACT;
+            double normalX = 0.0;
+            double normalY = 0.0;
+            for (int j = 0; j < candidates.size(); j++) {
+                Entity obstacle = candidates.get(j);
+                if (obstacle == circle) {
+                    continue;
+                }
+                double time = continuous.timeOfImpact(circle, obstacle, dt);
+                if (time < firstTime) {
+                    first = obstacle;
+                    firstTime = time;
+                    normalX = continuous.getNormal().getComponentX();
+                    normalY = continuous.getNormal().getComponentY();
+                }
+            }
+            if (first != null) {
+                impact(circle, first, dt, firstTime, normalX, normalY);
+
+                // the impulse can speed either of them up beyond the moves measured above
+                double moved = Math.max(moveSquared(circle, dt), moveSquared(first, dt));
+                farthestMove = Math.max(farthestMove, moved);
+                secondMove = Math.max(secondMove, moved);
+            }
+        }
+    }
+
+    // EFFECTS: returns the square of how far entity moves in a step of dt at its velocity
+    private static double moveSquared(Entity entity, double dt) {
+        double moveX = entity.getVelocityX() * dt;
+        double moveY = entity.getVelocityY() * dt;
+        return (moveX * moveX) + (moveY * moveY);
     }
 
     // MODIFIES: entity
-    // EFFECTS: applies velocities to entity, changing the position
-    private void applyVelocity(Entity entity) {
-        /*
-        x += v * dt
-         */
-        if (entity.isStatic()) {
-            return;
+    // EFFECTS: resolves the impact of circle with obstacle time of the way through a step of dt
+    //          along the normal like a contact would, and places circle so that integrating
+    //          it for the step moves it to the impact and then on at its new velocity for the
+    //          rest of the step
+    private void impact(Entity circle, Entity obstacle, double dt, double time, double normalX, double normalY) {
+        double impactX = circle.getPositionX() + circle.getVelocityX() * dt * time;
+        double impactY = circle.getPositionY() + circle.getVelocityY() * dt * time;
+        if (obstacle.isSleeping()) {
+            obstacle.wake();
+        }
+
+        double relativeX = obstacle.getVelocityX() - circle.getVelocityX();
+        double relativeY = obstacle.getVelocityY() - circle.getVelocityY();
+        double velocityAlongNormal = (relativeX * normalX) + (relativeY * normalY);
+        if (velocityAlongNormal < 0) {
+            double restitution = Math.min(circle.getRestitution(), obstacle.getRestitution());
+            if (velocityAlongNormal > -RESTING_VELOCITY) {
+                restitution = 0.0;
+            }
+            double impulse = -(1 + restitution) * velocityAlongNormal / (circle.getInvMass() + obstacle.getInvMass());
+            applyImpulse(circle, obstacle, normalX * impulse, normalY * impulse);
+        }
+
+        // the whole step of integration that follows covers the remaining (1 - time) of it
+        circle.setPosition(impactX - circle.getVelocityX() * dt * time,
+                impactY - circle.getVelocityY() * dt * time);
+    }
+
+    // MODIFIES: entity
+    // EFFECTS: counts the steps each awake entity has been slow for and puts every island whose
+    //          entities have all been slow for SLEEP_STEPS to sleep
+    private void updateSleep() {
+        for (int island = 0; island < islands.getIslandCount(); island++) {
+            int start = islands.getEntityStart(island);
+            int end = islands.getEntityEnd(island);
+
+            // an island sleeps only once its most restless entity does
+            int minSleepSteps = Integer.MAX_VALUE;
+            for (int i = start; i < end; i++) {
+                Entity entity = islands.getEntity(i);
+                double velocityX = entity.getVelocityX();
+                double velocityY = entity.getVelocityY();
+                if ((velocityX * velocityX) + (velocityY * velocityY) < SLEEP_VELOCITY * SLEEP_VELOCITY) {
+                    entity.setSleepSteps(entity.getSleepSteps() + 1);
+                } else {
+                    entity.setSleepSteps(0);
+                }
+                minSleepSteps = Math.min(minSleepSteps, entity.getSleepSteps());
+            }
+
+            if (minSleepSteps >= SLEEP_STEPS) {
+                sleepers.sleep(islands, island);
+            }
         }
-        entity.setPosition(Vector2.add(entity.getPosition(), Vector2.scale(entity.getVelocity(), DT)));
     }
 
     // MODIFIES: manifold, entity
-    // EFFECTS: resolves collision and applies new position, velocity, and acceleration
-    private void collisionResolution(Manifold manifold)  {
+    // EFFECTS: sets the velocity the contact should separate at and re-applies the impulse
+    //          it accumulated last step
+    private void warmStart(Manifold manifold) {
+
+        Entity a = manifold.getEntityA();
+        Entity b = manifold.getEntityB();
+        double normalX = manifold.getNormalX();
+        double normalY = manifold.getNormalY();
+
+        // velocity along normal before solving decides how hard the contact bounces
+        double relativeX = b.getVelocityX() - a.getVelocityX();
+        double relativeY = b.getVelocityY() - a.getVelocityY();
+        double velocityAlongNormal = (relativeX * normalX) + (relativeY * normalY);
+
+        // if object is resting or separating, do not bounce
+        double restitution = Math.min(a.getRestitution(), b.getRestitution());
+        if (velocityAlongNormal > -RESTING_VELOCITY) {
+            restitution = 0.0;
+        }
+        manifold.setTargetVelocity(-restitution * velocityAlongNormal);
+
+        // re-apply last step's impulse
+        double impulse = manifold.getAccumulatedImpulse();
+        applyImpulse(a, b, normalX * impulse, normalY * impulse);
+    }
+
+    // MODIFIES: manifold, entity
+    // EFFECTS: resolves collision and applies new position, velocity, and acceleration, and
+    //          returns how much the accumulated impulse of manifold changed
+    private double collisionResolution(Manifold manifold)  {
 
         // sets variables from Collision object
         Entity a = manifold.getEntityA();
         Entity b = manifold.getEntityB();
-        Vector2 normal = manifold.getNormal();
+        double normalX = manifold.getNormalX();
+        double normalY = manifold.getNormalY();
 
         // determine relative velocity
-        Vector2 relativeVelocity = Vector2.subtract(b.getVelocity(), a.getVelocity());
+        double relativeX = b.getVelocityX() - a.getVelocityX();
+        double relativeY = b.getVelocityY() - a.getVelocityY();
 
         // then calculates the velocity along normal vector
-        double velocityAlongNormal = Vector2.dotProduct(relativeVelocity, normal);
-
-        // if velocities are separating, do not resolve
-        if (velocityAlongNormal > 0) {
-            return;
-        }
+        double velocityAlongNormal = (relativeX * normalX) + (relativeY * normalY);
 
-        // calculate the restitution
-        double restitution = Math.min(a.getRestitution(), b.getRestitution());
+        // calculate the impulse that brings the velocity along normal to the target
+        // scalar first
+        double impulseScalar = (manifold.getTargetVelocity() - velocityAlongNormal)
+                / (a.getInvMass() + b.getInvMass());
 
-        // if object is resting
-        //if (Vector2.lengthSquared(relativeVelocity) < RESTING) {
-        //    restitution = 0.0;
-        //}
+        // the total impulse over all iterations can only push entities apart, so clamp the sum
+        // rather than each impulse; this lets later iterations take back part of earlier ones
+        double previous = manifold.getAccumulatedImpulse();
+        manifold.setAccumulatedImpulse(Math.max(previous + impulseScalar, 0.0));
+        impulseScalar = manifold.getAccumulatedImpulse() - previous;
 
-        // calculate the impulse
-        // scalar first
-        double impulseScalar = (-(1 + restitution) * velocityAlongNormal) / (a.getInvMass() + b.getInvMass());
+        // RESOLVES COLLISION
         // normal * scalar = impulse
-        Vector2 impulse = Vector2.scale(normal, impulseScalar);
+        applyImpulse(a, b, normalX * impulseScalar, normalY * impulseScalar);
+        return Math.abs(impulseScalar);
+    }
 
-        // RESOLVES COLLISION
+    // MODIFIES: entity
+    // EFFECTS: pushes a back and b forward by the impulse (impulseX, impulseY). entities that do
+    //          not move are left untouched, since a static entity can be shared by islands solved
+    //          in parallel
+    private void applyImpulse(Entity a, Entity b, double impulseX, double impulseY) {
         // subtracts from a velocity by impulse * inverse mass
-        a.setVelocity((Vector2.subtract(a.getVelocity(), Vector2.scale(impulse, a.getInvMass()))));
+        if (a.isAwake()) {
+            double invMass = a.getInvMass();
+            a.setVelocity(a.getVelocityX() - impulseX * invMass, a.getVelocityY() - impulseY * invMass);
+        }
         // adds to b velocity by impulse * inverse mass
-        b.setVelocity((Vector2.add(b.getVelocity(), Vector2.scale(impulse, b.getInvMass()))));
+        if (b.isAwake()) {
+            double invMass = b.getInvMass();
+            b.setVelocity(b.getVelocityX() + impulseX * invMass, b.getVelocityY() + impulseY * invMass);
+        }
     }
 
     // MODIFIES: manifold, entity
@@ -226,13 +734,20 @@ public class PhysicsEngine {
             return;
         }
 
-        double correction = StrictMath.max(manifold.getDepth() - PENETRATION_ALLOWANCE, 0.0f)
-                / (manifold.getEntityA().getInvMass() + manifold.getEntityB().getInvMass()) * PENETRATION_CORRECTION;
+        Entity a = manifold.getEntityA();
+        Entity b = manifold.getEntityB();
+        double normalX = manifold.getNormalX();
+        double normalY = manifold.getNormalY();
 
-        manifold.getEntityA().setPosition(Vector2.add(manifold.getEntityA().getPosition(),
-                Vector2.scale(manifold.getNormal(),-manifold.getEntityA().getInvMass() * correction)));
-        manifold.getEntityB().setPosition(Vector2.add(manifold.getEntityB().getPosition(),
-                Vector2.scale(manifold.getNormal(),manifold.getEntityA().getInvMass() * correction)));
+        double correction = StrictMath.max(manifold.getDepth() - PENETRATION_ALLOWANCE, 0.0f)
+                / (a.getInvMass() + b.getInvMass()) * PENETRATION_CORRECTION;
+
+        double moveA = -a.getInvMass() * correction;
+        double moveB = a.getInvMass() * correction;
+        a.setPosition(a.getPositionX() + normalX * moveA,
+                a.getPositionY() + normalY * moveA);
+        b.setPosition(b.getPositionX() + normalX * moveB,
+                b.getPositionY() + normalY * moveB);
     }
 
     // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
@@ -242,6 +757,105 @@ public class PhysicsEngine {
         return entities;
     }
 
+    // getter
+    public ContactCache getContacts() {
+        return contacts;
+    }
+
+    // getter
+    public EntityStore getStore() {
+        return store;
+    }
+
+    // getter
+    public BroadPhase getBroadPhase() {
+        return broadPhase;
+    }
+
+    // getter
+    public SolverMode getSolverMode() {
+        return solverMode;
+    }
+
+    // setter
+    public void setSolverMode(SolverMode solverMode) {
+        this.solverMode = solverMode;
+    }
+
+    // setter
+    public void setSolverPool(ForkJoinPool solverPool) {
+        this.solverPool = solverPool;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the sizes of the entities addEntity adds from now on follow from seed
+    public void setSeed(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // setter
+    public void setNarrowPhaseExecutor(Executor executor) {
+        narrowPhase.setExecutor(executor);
+    }
+
+    // REQUIRES: tolerance >= 0, 1 <= minIterations <= maxIterations
+    // MODIFIES: this
+    // EFFECTS: lets the solver stop once an iteration changes no impulse by tolerance or more,
+    //          after at least minIterations and at most maxIterations iterations. a tolerance of
+    //          0 always runs maxIterations
+    public void setConvergence(double tolerance, int minIterations, int maxIterations) {
+        this.convergenceTolerance = tolerance;
+        this.minIterations = minIterations;
+        this.maxIterations = maxIterations;
+    }
+
+    public double getConvergenceTolerance() {
+        return convergenceTolerance;
+    }
+
+    public int getMinIterations() {
+        return minIterations;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    // EFFECTS: returns the number of iterations the solver ran in the last step, the most any
+    //          island needed when islands are solved separately
+    public int getIterationsUsed() {
+        return iterationsUsed;
+    }
+
+    // EFFECTS: returns the length of time the next call to updatePhysics advances by
+    public double getStepSize() {
+        return stepSize;
+    }
+
+    public AdaptiveTimestep getTimestep() {
+        return timestep;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lets timestep pick the length of every step from the next one on, or steps by DT
+    //          again if timestep is null
+    public void setTimestep(AdaptiveTimestep timestep) {
+        this.timestep = timestep;
+        this.stepSize = timestep == null ? DT : timestep.getMaxStep();
+    }
+
+    public boolean isVectorized() {
+        return narrowPhase.isVectorized();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs integration and the circle tests on the Vector API if vectorized and the JVM
+    //          was started with it, falling back to the scalar loops otherwise
+    public void setVectorized(boolean vectorized) {
+        narrowPhase.setVectorized(vectorized);
+        store.setVectorized(vectorized);
+    }
+
     // setter
     public void setEntities(ArrayList<Entity> entities) {
         this.entities = entities;
@@ -0,0 +1,125 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The islands of an engine that are asleep. Each island is a range of one array that is reused
+ * from step to step, so putting an island to sleep allocates nothing once the array is big
+ * enough. Waking an island clears its range, and the ranges still asleep are packed to the front
+ * of the array when it runs out of room.
+ */
+class SleepingIslands {
+
+    private Entity[] members;
+    private int size;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty set of sleeping islands
+    SleepingIslands() {
+        this.members = new Entity[16];
+        this.size = 0;
+    }
+
+    // REQUIRES: every entity of island is awake
+    // MODIFIES: this, entity
+    // EFFECTS: puts the entities of island of islands to sleep together
+    void sleep(Islands islands, int island) {
+        int from = islands.getEntityStart(island);
+        int to = islands.getEntityEnd(island);
+        int start = reserve(to - from);
+        for (int i = from; i < to; i++) {
+            members[start + i - from] = islands.getEntity(i);
+        }
+        putToSleep(start, start + to - from);
+    }
+
+    // REQUIRES: every entity of island is awake
+    // MODIFIES: this, entity
+    // EFFECTS: puts the entities of island to sleep together
+    void sleep(List<Entity> island) {
+        int start = reserve(island.size());
+        for (int i = 0; i < island.size(); i++) {
+            members[start + i] = island.get(i);
+        }
+        putToSleep(start, start + island.size());
+    }
+
+    // REQUIRES: entity is awake
+    // MODIFIES: this, entity
+    // EFFECTS: puts entity to sleep as an island of its own
+    void sleep(Entity entity) {
+        int start = reserve(1);
+        members[start] = entity;
+        putToSleep(start, start + 1);
+    }
+
+    // MODIFIES: this, entity
+    // EFFECTS: wakes the island in the range from start to end
+    void wake(int start, int end) {
+        for (int i = start; i < end; i++) {
+            Entity member = members[i];
+            members[i] = null;
+            member.awaken();
+        }
+        if (end == size) {
+            size = start;
+        }
+    }
+
+    // MODIFIES: entity
+    // EFFECTS: puts the members from start to end to sleep as one island
+    private void putToSleep(int start, int end) {
+        for (int i = start; i < end; i++) {
+            members[i].sleep(this, start, end);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the start of a free range of count members at the end of the array,
+    //          packing the sleeping islands or growing the array if there is no room
+    private int reserve(int count) {
+        if (size + count > members.length) {
+            pack();
+            if (size + count > members.length) {
+                members = Arrays.copyOf(members, Math.max(members.length * 2, size + count));
+            }
+        }
+        int start = size;
+        size += count;
+        return start;
+    }
+
+    // MODIFIES: this, entity
+    // EFFECTS: moves the sleeping islands to the front of the array, keeping their order. an
+    //          island wakes as a whole, so a range is either entirely asleep or entirely empty
+    private void pack() {
+        int write = 0;
+        int read = 0;
+        while (read < size) {
+            Entity first = members[read];
+            if (first == null) {
+                read++;
+                continue;
+            }
+            int length = first.getSleepEnd() - read;
+            for (int i = 0; i < length; i++) {
+                Entity member = members[read + i];
+                members[read + i] = null;
+                members[write + i] = member;
+                member.setSleepRange(write, write + length);
+            }
+            write += length;
+            read += length;
+        }
+        size = write;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // EFFECTS: returns the number of entries of the array in use, asleep or cleared
+    int size() {
+        return size;
+    }
+
+}
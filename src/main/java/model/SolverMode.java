@@ -0,0 +1,13 @@
+package model;
+
+/**
+ * The ways PhysicsEngine can run the iterations that resolve collisions.
+ */
+public enum SolverMode {
+    // every manifold in order on the calling thread
+    SEQUENTIAL,
+    // independent islands in parallel, each island in order on one thread
+    ISLANDS,
+    // colors of manifolds that share no awake entity one after the other, each color in parallel
+    COLORED
+}
@@ -0,0 +1,130 @@
+package model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD versions of the arithmetic loops that run over every body or every circle pair, built on
+ * the incubating Vector API. Each kernel handles as many whole lanes as fit and returns the index
+ * it stopped at, so the caller finishes the remainder with its scalar loop. The kernels do the
+ * same operations in the same order as the scalar loops, without fused multiply-adds, so both
+ * paths give identical results.
+ *
+ * The Vector API classes are only touched once a kernel runs, so callers check isAvailable and
+ * keep their scalar loop when the JVM was started without --add-modules jdk.incubator.vector.
+ */
+final class VectorKernels {
+
+    private static final boolean AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorKernels() {
+    }
+
+    // EFFECTS: returns true if the Vector API was added to this JVM
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    // REQUIRES: isAvailable(), every array has at least size elements
+    // MODIFIES: velocityX, velocityY
+    // EFFECTS: v += F * halfDt * invMass + gravity for every awake body in whole lanes from 0,
+    //          and returns the index of the first body left for the caller
+    static int applyForces(int size, double halfDt, double gravityX, double gravityY, boolean[] awake,
+                           double[] invMass, double[] forceX, double[] forceY,
+                           double[] velocityX, double[] velocityY) {
+        return Lanes.applyForces(size, halfDt, gravityX, gravityY, awake, invMass, forceX, forceY,
+                velocityX, velocityY);
+    }
+
+    // REQUIRES: isAvailable(), every array has at least size elements
+    // MODIFIES: positionX, positionY, centerX, centerY, maxX, maxY
+    // EFFECTS: x += v * dt for every awake body in whole lanes from 0, moving its cached center and
+    //          max corner with it, and returns the index of the first body left for the caller
+    static int applyVelocities(int size, double dt, boolean[] awake, double[] velocityX, double[] velocityY,
+                               double[] positionX, double[] positionY, double[] extentX, double[] extentY,
+                               double[] centerX, double[] centerY, double[] maxX, double[] maxY) {
+        return Lanes.applyVelocities(size, dt, awake, velocityX, velocityY, positionX, positionY,
+                extentX, extentY, centerX, centerY, maxX, maxY);
+    }
+
+    // REQUIRES: isAvailable(), every array has at least count elements
+    // MODIFIES: apart
+    // EFFECTS: for the circle pairs in whole lanes from 0, sets apart[i] to whether circle a at
+    //          (ax[i], ay[i]) with radius ar[i] is clear of circle b, and returns the index of the
+    //          first pair left for the caller. positions are the top left corners of the circles
+    static int circlesApart(int count, double[] ax, double[] ay, double[] ar,
+                            double[] bx, double[] by, double[] br, boolean[] apart) {
+        return Lanes.circlesApart(count, ax, ay, ar, bx, by, br, apart);
+    }
+
+    // the code that actually names Vector API types, loaded on the first kernel call
+    private static final class Lanes {
+
+        private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+        private static int applyForces(int size, double halfDt, double gravityX, double gravityY,
+                                       boolean[] awake, double[] invMass, double[] forceX, double[] forceY,
+                                       double[] velocityX, double[] velocityY) {
+            int bound = SPECIES.loopBound(size);
+            for (int i = 0; i < bound; i += SPECIES.length()) {
+                VectorMask<Double> mask = VectorMask.fromArray(SPECIES, awake, i);
+                DoubleVector scale = DoubleVector.fromArray(SPECIES, invMass, i).mul(halfDt);
+                DoubleVector.fromArray(SPECIES, velocityX, i)
+                        .add(DoubleVector.fromArray(SPECIES, forceX, i).mul(scale))
+                        .add(gravityX)
+                        .intoArray(velocityX, i, mask);
+                DoubleVector.fromArray(SPECIES, velocityY, i)
+                        .add(DoubleVector.fromArray(SPECIES, forceY, i).mul(scale))
+                        .add(gravityY)
+                        .intoArray(velocityY, i, mask);
+            }
+            return bound;
+        }
+
+        private static int applyVelocities(int size, double dt, boolean[] awake, double[] velocityX,
+                                           double[] velocityY, double[] positionX, double[] positionY,
+                                           double[] extentX, double[] extentY, double[] centerX,
+                                           double[] centerY, double[] maxX, double[] maxY) {
+            int bound = SPECIES.loopBound(size);
+            for (int i = 0; i < bound; i += SPECIES.length()) {
+                VectorMask<Double> mask = VectorMask.fromArray(SPECIES, awake, i);
+                DoubleVector x = DoubleVector.fromArray(SPECIES, positionX, i)
+                        .add(DoubleVector.fromArray(SPECIES, velocityX, i).mul(dt));
+                DoubleVector y = DoubleVector.fromArray(SPECIES, positionY, i)
+                        .add(DoubleVector.fromArray(SPECIES, velocityY, i).mul(dt));
+                DoubleVector width = DoubleVector.fromArray(SPECIES, extentX, i);
+                DoubleVector height = DoubleVector.fromArray(SPECIES, extentY, i);
+                x.intoArray(positionX, i, mask);
+                y.intoArray(positionY, i, mask);
+                x.add(width.mul(0.5)).intoArray(centerX, i, mask);
+                y.add(height.mul(0.5)).intoArray(centerY, i, mask);
+                x.add(width).intoArray(maxX, i, mask);
+                y.add(height).intoArray(maxY, i, mask);
+            }
+            return bound;
+        }
+
+        private static int circlesApart(int count, double[] ax, double[] ay, double[] ar,
+                                        double[] bx, double[] by, double[] br, boolean[] apart) {
+            int bound = SPECIES.loopBound(count);
+            for (int i = 0; i < bound; i += SPECIES.length()) {
+                DoubleVector radiusA = DoubleVector.fromArray(SPECIES, ar, i);
+                DoubleVector radiusB = DoubleVector.fromArray(SPECIES, br, i);
+                DoubleVector distX = DoubleVector.fromArray(SPECIES, bx, i).add(radiusB)
+                        .sub(DoubleVector.fromArray(SPECIES, ax, i).add(radiusA));
+                DoubleVector distY = DoubleVector.fromArray(SPECIES, by, i).add(radiusB)
+                        .sub(DoubleVector.fromArray(SPECIES, ay, i).add(radiusA));
+                DoubleVector radii = radiusA.add(radiusB);
+                distX.mul(distX).add(distY.mul(distY))
+                        .compare(VectorOperators.GE, radii.mul(radii))
+                        .intoArray(apart, i);
+            }
+            return bound;
+        }
+
+    }
+
+}
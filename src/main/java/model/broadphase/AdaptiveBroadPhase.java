@@ -0,0 +1,128 @@
+package model.broadphase;
+
+import model.Entity;
+import model.helpers.PairBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A broadphase that watches the number of entities and the spread of their sizes, and
+ * periodically switches to whichever strategy should be cheapest for them:
+ * brute force for a handful of entities, a spatial hash grid sized to the average entity when
+ * sizes are similar, and a dynamic AABB tree when they are not.
+ *
+ * A new strategy is handed every tracked entity before it is queried, so switching never
+ * drops a pair.
+ */
+public class AdaptiveBroadPhase implements BroadPhase {
+
+    public static final int EVALUATION_INTERVAL = 60; // # of updates between re-evaluations
+    public static final int BRUTE_FORCE_LIMIT = 32;
+    public static final double SPREAD_LIMIT = 8; // largest / average entity size for the grid
+
+    private final List<Entity> entities;
+    private BroadPhase strategy;
+    private int updatesUntilEvaluation;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty broadphase that starts out as brute force
+    public AdaptiveBroadPhase() {
+        this.entities = new ArrayList<>();
+        this.strategy = new BruteForceBroadPhase();
+        this.updatesUntilEvaluation = 0;
+    }
+
+    @Override
+    public void add(Entity entity) {
+        entities.add(entity);
+        strategy.add(entity);
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        entities.remove(entity);
+        strategy.remove(entity);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-evaluates the strategy every EVALUATION_INTERVAL updates, then updates it
+    @Override
+    public void update() {
+        updatesUntilEvaluation--;
+        if (updatesUntilEvaluation <= 0) {
+            evaluate();
+            updatesUntilEvaluation = EVALUATION_INTERVAL;
+        }
+        strategy.update();
+    }
+
+    @Override
+    public void queryPairs(PairBuffer pairs) {
+        strategy.queryPairs(pairs);
+    }
+
+    @Override
+    public void queryBox(double minX, double minY, double maxX, double maxY, List<Entity> found) {
+        strategy.queryBox(minX, minY, maxX, maxY, found);
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: switches strategy if the current one no longer suits the entities
+    public void evaluate() {
+        if (entities.size() <= BRUTE_FORCE_LIMIT) {
+            if (!(strategy instanceof BruteForceBroadPhase)) {
+                switchTo(new BruteForceBroadPhase());
+            }
+            return;
+        }
+
+        double total = 0;
+        double largest = 0;
+        for (Entity entity : entities) {
+            double size = Math.max(entity.getBoundingWidth(), entity.getBoundingHeight());
+            total += size;
+            largest = Math.max(largest, size);
+        }
+        double average = total / entities.size();
+
+        if (largest > average * SPREAD_LIMIT) {
+            if (!(strategy instanceof DynamicAabbTree)) {
+                switchTo(new DynamicAabbTree());
+            }
+            return;
+        }
+
+        // cells twice the average size keep most entities within four cells;
+        // only rebuild when the ideal cell size has drifted far from the current one
+        double cellSize = Math.max(average * 2, 1);
+        if (strategy instanceof SpatialHashGrid) {
+            double current = ((SpatialHashGrid) strategy).getCellSize();
+            if (cellSize < current * 2 && cellSize > current / 2) {
+                return;
+            }
+        }
+        switchTo(new SpatialHashGrid(cellSize));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the current strategy with next, handing it every tracked entity
+    private void switchTo(BroadPhase next) {
+        for (Entity entity : entities) {
+            next.add(entity);
+        }
+        strategy = next;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public BroadPhase getStrategy() {
+        return strategy;
+    }
+
+}
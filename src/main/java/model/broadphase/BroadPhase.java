@@ -0,0 +1,40 @@
+package model.broadphase;
+
+import model.Entity;
+import model.helpers.PairBuffer;
+
+import java.util.List;
+
+/**
+ * Interface for the first stage of collision detection, which cheaply narrows all possible
+ * pairs of entities down to those whose bounding boxes overlap.
+ */
+public interface BroadPhase {
+
+    // MODIFIES: this
+    // EFFECTS: starts tracking entity
+    void add(Entity entity);
+
+    // MODIFIES: this
+    // EFFECTS: stops tracking entity, does nothing if it is not tracked
+    void remove(Entity entity);
+
+    // MODIFIES: this
+    // EFFECTS: brings the broadphase up to date with the current entity positions
+    void update();
+
+    // MODIFIES: pairs
+    // EFFECTS: adds every pair of tracked entities whose bounding boxes overlap as of the last
+    //          update to pairs, each pair exactly once and never two entities that are both
+    //          static or asleep
+    void queryPairs(PairBuffer pairs);
+
+    // MODIFIES: found
+    // EFFECTS: adds every tracked entity whose bounding box overlaps the box from (minX, minY)
+    //          to (maxX, maxY) as of the last update to found, each exactly once
+    void queryBox(double minX, double minY, double maxX, double maxY, List<Entity> found);
+
+    // EFFECTS: returns the number of tracked entities
+    int size();
+
+}
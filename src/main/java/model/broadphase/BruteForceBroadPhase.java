@@ -0,0 +1,72 @@
+package model.broadphase;
+
+import model.Entity;
+import model.helpers.PairBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A broadphase that tests every entity against every other entity. O(n^2), but has no upkeep,
+ * so it is the cheapest option for scenes with only a handful of entities.
+ */
+public class BruteForceBroadPhase implements BroadPhase {
+
+    private final List<Entity> entities;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty broadphase
+    public BruteForceBroadPhase() {
+        this.entities = new ArrayList<>();
+    }
+
+    @Override
+    public void add(Entity entity) {
+        entities.add(entity);
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        entities.remove(entity);
+    }
+
+    @Override
+    public void update() {
+        // nothing is cached between steps
+    }
+
+    @Override
+    public void queryPairs(PairBuffer pairs) {
+        // O(n^2) loop to pair each object with the ones after it
+        for (int i = 0; i < entities.size(); i++) {
+            Entity a = entities.get(i);
+            for (int j = i + 1; j < entities.size(); j++) {
+                Entity b = entities.get(j);
+                if (!a.isAwake() && !b.isAwake()) {
+                    continue;
+                }
+                if (a.getMinX() <= b.getMaxX() && b.getMinX() <= a.getMaxX()
+                        && a.getMinY() <= b.getMaxY() && b.getMinY() <= a.getMaxY()) {
+                    pairs.add(a, b);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void queryBox(double minX, double minY, double maxX, double maxY, List<Entity> found) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (entity.getMinX() <= maxX && minX <= entity.getMaxX()
+                    && entity.getMinY() <= maxY && minY <= entity.getMaxY()) {
+                found.add(entity);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+
+}
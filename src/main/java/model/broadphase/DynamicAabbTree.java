@@ -0,0 +1,502 @@
+package model.broadphase;
+
+import model.Entity;
+import model.helpers.PairBuffer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A dynamic bounding volume hierarchy broadphase. Every entity is a leaf holding a fattened
+ * bounding box, so a leaf only has to be re-inserted once its entity leaves the fat box.
+ * Internal nodes bound their two children and are kept balanced with tree rotations.
+ * Handles scenes that mix very large and very small entities, where uniform grids break down.
+ *
+ * Nodes are stored in parallel arrays and referred to by index.
+ *
+ * Insertion, removal and balancing follow the dynamic tree from Box2D:
+ * <a href="https://github.com/erincatto/box2d">...</a>
+ */
+public class DynamicAabbTree implements BroadPhase {
+
+    public static final double DEFAULT_MARGIN = 10;
+
+    private static final int NULL_NODE = -1;
+
+    private final double margin;
+
+    // node storage, a free node uses parent as the link to the next free node
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private int[] parent;
+    private int[] child1;
+    private int[] child2;
+    private int[] height;
+    private Entity[] nodeEntity;
+    private int root;
+    private int freeList;
+    private int nodeCount;
+
+    // tracked entities and the leaf holding each of them
+    private Entity[] entities;
+    private int[] leaves;
+    private int count;
+
+    private int[] stack;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty tree with the default margin
+    public DynamicAabbTree() {
+        this(DEFAULT_MARGIN);
+    }
+
+    // REQUIRES: margin >= 0
+    // MODIFIES: this
+    // EFFECTS: constructs an empty tree whose leaves are margin bigger than their entity on each side
+    public DynamicAabbTree(double margin) {
+        this.margin = margin;
+        this.minX = new double[0];
+        this.minY = new double[0];
+        this.maxX = new double[0];
+        this.maxY = new double[0];
+        this.parent = new int[0];
+        this.child1 = new int[0];
+        this.child2 = new int[0];
+        this.height = new int[0];
+        this.nodeEntity = new Entity[0];
+        this.root = NULL_NODE;
+        this.freeList = NULL_NODE;
+        this.nodeCount = 0;
+        this.entities = new Entity[16];
+        this.leaves = new int[16];
+        this.count = 0;
+        this.stack = new int[64];
+        growNodes(16);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts tracking entity by inserting a leaf for it
+    @Override
+    public void add(Entity entity) {
+        if (count == entities.length) {
+            entities = Arrays.copyOf(entities, count * 2);
+            leaves = Arrays.copyOf(leaves, count * 2);
+        }
+        int leaf = allocateNode();
+        nodeEntity[leaf] = entity;
+        fatten(leaf, entity);
+        insertLeaf(leaf);
+        entities[count] = entity;
+        leaves[count] = leaf;
+        count++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops tracking entity and removes its leaf
+    @Override
+    public void remove(Entity entity) {
+        for (int i = 0; i < count; i++) {
+            if (entities[i] == entity) {
+                removeLeaf(leaves[i]);
+                freeNode(leaves[i]);
+                count--;
+                entities[i] = entities[count];
+                leaves[i] = leaves[count];
+                entities[count] = null;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void queryPairs(PairBuffer pairs) {
+        // every pair of leaves is found exactly once, below the node where their paths split
+        for (int node = 0; node < nodeCount; node++) {
+            if (height[node] > 0) {
+                crossPairs(child1[node], child2[node], pairs);
+            }
+        }
+    }
+
+    // MODIFIES: pairs
+    // EFFECTS: adds every overlapping pair with one leaf below nodeA and the other below nodeB
+    private void crossPairs(int nodeA, int nodeB, PairBuffer pairs) {
+        int top = 0;
+        push(top++, nodeA);
+        push(top++, nodeB);
+
+        while (top > 0) {
+            int b = stack[--top];
+            int a = stack[--top];
+            if (!overlaps(a, b)) {
+                continue;
+            }
+
+            if (height[a] == 0 && height[b] == 0) {
+                addPair(nodeEntity[a], nodeEntity[b], pairs);
+            } else if (height[b] == 0 || (height[a] > 0 && height[a] >= height[b])) {
+                // descend into the taller subtree first
+                push(top++, child1[a]);
+                push(top++, b);
+                push(top++, child2[a]);
+                push(top++, b);
+            } else {
+                push(top++, a);
+                push(top++, child1[b]);
+                push(top++, a);
+                push(top++, child2[b]);
+            }
+        }
+    }
+
+    // MODIFIES: pairs
+    // EFFECTS: adds the pair of entities to pairs if their exact bounding boxes overlap
+    private void addPair(Entity a, Entity b, PairBuffer pairs) {
+        if (!a.isAwake() && !b.isAwake()) {
+            return;
+        }
+        if (a.getMinX() <= b.getMaxX() && b.getMinX() <= a.getMaxX()
+                && a.getMinY() <= b.getMaxY() && b.getMinY() <= a.getMaxY()) {
+            pairs.add(a, b);
+        }
+    }
+
+    @Override
+    public void queryBox(double minX, double minY, double maxX, double maxY, List<Entity> found) {
+        if (root == NULL_NODE) {
+            return;
+        }
+        int top = 0;
+        push(top++, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (this.minX[node] > maxX || minX > this.maxX[node]
+                    || this.minY[node] > maxY || minY > this.maxY[node]) {
+                continue;
+            }
+            if (height[node] > 0) {
+                push(top++, child1[node]);
+                push(top++, child2[node]);
+                continue;
+            }
+            // the leaf is fattened, so check the exact bounds of its entity
+            Entity entity = nodeEntity[node];
+            if (entity.getMinX() <= maxX && minX <= entity.getMaxX()
+                    && entity.getMinY() <= maxY && minY <= entity.getMaxY()) {
+                found.add(entity);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-inserts every leaf whose entity is no longer contained in its fat box
+    @Override
+    public void update() {
+        for (int i = 0; i < count; i++) {
+            Entity entity = entities[i];
+            int leaf = leaves[i];
+            if (entity.getMinX() < minX[leaf] || entity.getMinY() < minY[leaf]
+                    || entity.getMaxX() > maxX[leaf] || entity.getMaxY() > maxY[leaf]) {
+                removeLeaf(leaf);
+                fatten(leaf, entity);
+                insertLeaf(leaf);
+            }
+        }
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // MODIFIES: this
+    // EFFECTS: inserts leaf next to the sibling that increases the total perimeter the least
+    @SuppressWarnings("methodlength")
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parent[leaf] = NULL_NODE;
+            return;
+        }
+
+        // find the best sibling
+        int index = root;
+        while (height[index] > 0) {
+            double area = perimeter(index);
+            double combinedArea = combinedPerimeter(index, leaf);
+
+            // cost of creating a new parent for this node and the new leaf
+            double cost = 2 * combinedArea;
+
+            // minimum cost of pushing the leaf further down the tree
+            double inheritanceCost = 2 * (combinedArea - area);
+            double cost1 = descendCost(child1[index], leaf) + inheritanceCost;
+            double cost2 = descendCost(child2[index], leaf) + inheritanceCost;
+
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? child1[index] : child2[index];
+        }
+        int sibling = index;
+
+        // create a new parent for the sibling and the leaf
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        height[newParent] = height[sibling] + 1;
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+        if (oldParent == NULL_NODE) {
+            root = newParent;
+        } else if (child1[oldParent] == sibling) {
+            child1[oldParent] = newParent;
+        } else {
+            child2[oldParent] = newParent;
+        }
+
+        refit(newParent);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: detaches leaf from the tree, replacing its parent with its sibling
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+
+        int oldParent = parent[leaf];
+        int grandParent = parent[oldParent];
+        int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+
+        if (grandParent == NULL_NODE) {
+            root = sibling;
+            parent[sibling] = NULL_NODE;
+            freeNode(oldParent);
+            return;
+        }
+
+        if (child1[grandParent] == oldParent) {
+            child1[grandParent] = sibling;
+        } else {
+            child2[grandParent] = sibling;
+        }
+        parent[sibling] = grandParent;
+        freeNode(oldParent);
+
+        refit(grandParent);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: walks from index to the root, balancing and recomputing bounds and heights
+    private void refit(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+            int c1 = child1[index];
+            int c2 = child2[index];
+            height[index] = 1 + Math.max(height[c1], height[c2]);
+            union(index, c1, c2);
+            index = parent[index];
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rotates a child of node a up if a is imbalanced, returns the new root of the subtree
+    @SuppressWarnings("methodlength")
+    private int balance(int a) {
+        if (height[a] < 2) {
+            return a;
+        }
+
+        int b = child1[a];
+        int c = child2[a];
+        int difference = height[c] - height[b];
+
+        if (difference > 1) {
+            // rotate c up
+            int f = child1[c];
+            int g = child2[c];
+            child1[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            replaceChild(parent[c], a, c);
+
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+            }
+            fix(a);
+            fix(c);
+            return c;
+        }
+
+        if (difference < -1) {
+            // rotate b up
+            int d = child1[b];
+            int e = child2[b];
+            child1[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            replaceChild(parent[b], a, b);
+
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+            }
+            fix(a);
+            fix(b);
+            return b;
+        }
+
+        return a;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes node point to newChild instead of oldChild, or makes newChild the root
+    private void replaceChild(int node, int oldChild, int newChild) {
+        if (node == NULL_NODE) {
+            root = newChild;
+        } else if (child1[node] == oldChild) {
+            child1[node] = newChild;
+        } else {
+            child2[node] = newChild;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the bounds and height of node from its children
+    private void fix(int node) {
+        union(node, child1[node], child2[node]);
+        height[node] = 1 + Math.max(height[child1[node]], height[child2[node]]);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // EFFECTS: returns the cost of pushing leaf down into node
+    private double descendCost(int node, int leaf) {
+        if (height[node] == 0) {
+            return combinedPerimeter(node, leaf);
+        }
+        return combinedPerimeter(node, leaf) - perimeter(node);
+    }
+
+    // EFFECTS: returns the perimeter of the bounds of node
+    private double perimeter(int node) {
+        return 2 * ((maxX[node] - minX[node]) + (maxY[node] - minY[node]));
+    }
+
+    // EFFECTS: returns the perimeter of the bounds enclosing both a and b
+    private double combinedPerimeter(int a, int b) {
+        double spanX = Math.max(maxX[a], maxX[b]) - Math.min(minX[a], minX[b]);
+        double spanY = Math.max(maxY[a], maxY[b]) - Math.min(minY[a], minY[b]);
+        return 2 * (spanX + spanY);
+    }
+
+    // EFFECTS: returns true if the bounds of a and b overlap
+    private boolean overlaps(int a, int b) {
+        return minX[a] <= maxX[b] && minX[b] <= maxX[a] && minY[a] <= maxY[b] && minY[b] <= maxY[a];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the bounds of node to enclose both a and b
+    private void union(int node, int a, int b) {
+        minX[node] = Math.min(minX[a], minX[b]);
+        minY[node] = Math.min(minY[a], minY[b]);
+        maxX[node] = Math.max(maxX[a], maxX[b]);
+        maxY[node] = Math.max(maxY[a], maxY[b]);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the bounds of leaf to those of entity, grown by the margin
+    private void fatten(int leaf, Entity entity) {
+        minX[leaf] = entity.getMinX() - margin;
+        minY[leaf] = entity.getMinY() - margin;
+        maxX[leaf] = entity.getMaxX() + margin;
+        maxY[leaf] = entity.getMaxY() + margin;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pushes node onto the traversal stack at position top, growing it if needed
+    private void push(int top, int node) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+        }
+        stack[top] = node;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // MODIFIES: this
+    // EFFECTS: takes a node from the free list, growing the node storage if it is empty
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            growNodes(nodeCount * 2);
+        }
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL_NODE;
+        child1[node] = NULL_NODE;
+        child2[node] = NULL_NODE;
+        height[node] = 0;
+        nodeEntity[node] = null;
+        return node;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns node to the free list
+    private void freeNode(int node) {
+        parent[node] = freeList;
+        height[node] = -1;
+        nodeEntity[node] = null;
+        freeList = node;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows node storage to capacity and adds the new nodes to the free list
+    private void growNodes(int capacity) {
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        child1 = Arrays.copyOf(child1, capacity);
+        child2 = Arrays.copyOf(child2, capacity);
+        height = Arrays.copyOf(height, capacity);
+        nodeEntity = Arrays.copyOf(nodeEntity, capacity);
+        for (int node = capacity - 1; node >= nodeCount; node--) {
+            parent[node] = freeList;
+            height[node] = -1;
+            freeList = node;
+        }
+        nodeCount = capacity;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    // EFFECTS: returns the height of the tree, -1 if it is empty
+    public int getHeight() {
+        return root == NULL_NODE ? -1 : height[root];
+    }
+
+    public double getMargin() {
+        return margin;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+}
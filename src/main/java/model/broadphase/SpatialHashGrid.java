@@ -0,0 +1,329 @@
+package model.broadphase;
+
+import model.Entity;
+import model.helpers.Pair;
+import model.helpers.PairBuffer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A uniform grid broadphase that buckets entities by the cells their bounding boxes cover.
+ * Cells are hashed into a table of int buckets that is rebuilt with a counting sort every step,
+ * so a step costs O(n) and allocates nothing once the arrays have grown to fit the scene.
+ * Works best when the cell size is close to the size of the typical entity.
+ */
+public class SpatialHashGrid implements BroadPhase {
+
+    public static final double DEFAULT_CELL_SIZE = 128;
+
+    private static final int HASH_X = 0x8da6b343;
+    private static final int HASH_Y = 0xd8163841;
+
+    private final double cellSize;
+    private final double invCellSize;
+
+    // removed entities leave a null hole until the next update, so the entries built by the last
+    // update keep pointing at the right entities. indexed is the count as of that update
+    private Entity[] entities;
+    private int count;
+    private int holes;
+    private int indexed;
+
+    // ids and whether each entity moves this step, indexed like entities
+    private int[] ids;
+    private boolean[] awake;
+
+    // bounds of each entity and the first cell they cover, packed into one record per entity
+    // so a pair check touches as few cache lines as possible
+    private static final int RECORD = 6;
+    private static final int MIN_X = 0;
+    private static final int MIN_Y = 1;
+    private static final int MAX_X = 2;
+    private static final int MAX_Y = 3;
+    private static final int CELL_X = 4;
+    private static final int CELL_Y = 5;
+    private double[] records;
+
+    // one entry per (entity, cell) combination, in the order entities were visited
+    private int[] entryEntity;
+    private int[] entryCellX;
+    private int[] entryCellY;
+    private int[] entryBucket;
+    private int entryCount;
+
+    // the same entries sorted by bucket, bucketStart[b] to bucketStart[b + 1] is bucket b
+    private int[] sortedEntity;
+    private int[] sortedCellX;
+    private int[] sortedCellY;
+    private int[] bucketStart;
+    private int bucketMask;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty grid with the default cell size
+    public SpatialHashGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    // REQUIRES: cellSize > 0
+    // MODIFIES: this
+    // EFFECTS: constructs an empty grid whose cells are cellSize by cellSize
+    public SpatialHashGrid(double cellSize) {
+        this.cellSize = cellSize;
+        this.invCellSize = 1 / cellSize;
+        this.entities = new Entity[16];
+        this.ids = new int[16];
+        this.awake = new boolean[16];
+        this.records = new double[16 * RECORD];
+        this.entryEntity = new int[64];
+        this.entryCellX = new int[64];
+        this.entryCellY = new int[64];
+        this.entryBucket = new int[64];
+        this.sortedEntity = new int[64];
+        this.sortedCellX = new int[64];
+        this.sortedCellY = new int[64];
+        this.bucketStart = new int[65];
+        this.bucketMask = 63;
+        this.count = 0;
+        this.holes = 0;
+        this.indexed = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts tracking entity
+    @Override
+    public void add(Entity entity) {
+        if (count == entities.length) {
+            int capacity = count * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            awake = Arrays.copyOf(awake, capacity);
+            records = Arrays.copyOf(records, capacity * RECORD);
+        }
+        entities[count++] = entity;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops tracking entity, leaving a hole the next update closes
+    @Override
+    public void remove(Entity entity) {
+        for (int i = 0; i < count; i++) {
+            if (entities[i] == entity) {
+                entities[i] = null;
+                holes++;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void queryPairs(PairBuffer pairs) {
+        for (int bucket = 0; bucket <= bucketMask; bucket++) {
+            int start = bucketStart[bucket];
+            int end = bucketStart[bucket + 1];
+            for (int i = start; i < end; i++) {
+                for (int j = i + 1; j < end; j++) {
+                    checkPair(i, j, pairs);
+                }
+            }
+        }
+    }
+
+    // a box covering more cells than there are entities is cheaper to check against every entity
+    @Override
+    public void queryBox(double minX, double minY, double maxX, double maxY, List<Entity> found) {
+        int minCellX = cell(minX);
+        int minCellY = cell(minY);
+        int maxCellX = cell(maxX);
+        int maxCellY = cell(maxY);
+        if ((long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > indexed) {
+            for (int i = 0; i < indexed; i++) {
+                checkBox(i, minX, minY, maxX, maxY, found);
+            }
+            return;
+        }
+
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int y = minCellY; y <= maxCellY; y++) {
+                int bucket = hash(x, y) & bucketMask;
+                for (int e = bucketStart[bucket]; e < bucketStart[bucket + 1]; e++) {
+                    if (sortedCellX[e] != x || sortedCellY[e] != y) {
+                        continue;
+                    }
+                    // an entity in several cells of the box is only reported by the first of them
+                    int index = sortedEntity[e];
+                    int record = index * RECORD;
+                    if (x == (int) Math.max(records[record + CELL_X], minCellX)
+                            && y == (int) Math.max(records[record + CELL_Y], minCellY)) {
+                        checkBox(index, minX, minY, maxX, maxY, found);
+                    }
+                }
+            }
+        }
+    }
+
+    // MODIFIES: found
+    // EFFECTS: adds the entity at index to found if it is still tracked and its bounds overlap the box
+    private void checkBox(int index, double minX, double minY, double maxX, double maxY, List<Entity> found) {
+        int record = index * RECORD;
+        if (entities[index] != null && records[record + MIN_X] <= maxX && minX <= records[record + MAX_X]
+                && records[record + MIN_Y] <= maxY && minY <= records[record + MAX_Y]) {
+            found.add(entities[index]);
+        }
+    }
+
+    // MODIFIES: pairs
+    // EFFECTS: adds the pair of entities behind two sorted entries in the same bucket to pairs if
+    //          they overlap and the entries' cell is the one responsible for reporting them
+    private void checkPair(int entryA, int entryB, PairBuffer pairs) {
+        int cellX = sortedCellX[entryA];
+        int cellY = sortedCellY[entryA];
+
+        // different cells can hash into the same bucket
+        if (cellX != sortedCellX[entryB] || cellY != sortedCellY[entryB]) {
+            return;
+        }
+
+        int indexA = sortedEntity[entryA];
+        int indexB = sortedEntity[entryB];
+        int a = indexA * RECORD;
+        int b = indexB * RECORD;
+
+        // a pair sharing several cells is only reported by the first cell of the shared range
+        if (cellX != (int) Math.max(records[a + CELL_X], records[b + CELL_X])
+                || cellY != (int) Math.max(records[a + CELL_Y], records[b + CELL_Y])) {
+            return;
+        }
+
+        if (records[a + MIN_X] <= records[b + MAX_X] && records[b + MIN_X] <= records[a + MAX_X]
+                && records[a + MIN_Y] <= records[b + MAX_Y] && records[b + MIN_Y] <= records[a + MAX_Y]
+                && (awake[indexA] || awake[indexB])
+                && entities[indexA] != null && entities[indexB] != null) {
+            pairs.add(entities[indexA], entities[indexB], Pair.key(ids[indexA], ids[indexB]));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rebuilds the grid by recomputing the cells of every entity and sorting the entries by bucket
+    @Override
+    public void update() {
+        if (holes > 0) {
+            closeHoles();
+        }
+        entryCount = 0;
+        for (int i = 0; i < count; i++) {
+            Entity entity = entities[i];
+            int record = i * RECORD;
+            ids[i] = entity.getId();
+            awake[i] = entity.isAwake();
+            records[record + MIN_X] = entity.getMinX();
+            records[record + MIN_Y] = entity.getMinY();
+            records[record + MAX_X] = entity.getMaxX();
+            records[record + MAX_Y] = entity.getMaxY();
+
+            int minCellX = cell(records[record + MIN_X]);
+            int minCellY = cell(records[record + MIN_Y]);
+            int maxCellX = cell(records[record + MAX_X]);
+            int maxCellY = cell(records[record + MAX_Y]);
+            records[record + CELL_X] = minCellX;
+            records[record + CELL_Y] = minCellY;
+            for (int x = minCellX; x <= maxCellX; x++) {
+                for (int y = minCellY; y <= maxCellY; y++) {
+                    addEntry(i, x, y);
+                }
+            }
+        }
+
+        resizeTable();
+
+        // counting sort of entries by bucket, bucketStart[b] first holds the end of bucket b
+        Arrays.fill(bucketStart, 0, bucketMask + 1, 0);
+        for (int e = 0; e < entryCount; e++) {
+            int bucket = hash(entryCellX[e], entryCellY[e]) & bucketMask;
+            entryBucket[e] = bucket;
+            bucketStart[bucket]++;
+        }
+        for (int bucket = 1; bucket <= bucketMask; bucket++) {
+            bucketStart[bucket] += bucketStart[bucket - 1];
+        }
+        bucketStart[bucketMask + 1] = entryCount;
+
+        // the entries are copied rather than referenced so each bucket can be scanned in order
+        for (int e = entryCount - 1; e >= 0; e--) {
+            int slot = --bucketStart[entryBucket[e]];
+            sortedEntity[slot] = entryEntity[e];
+            sortedCellX[slot] = entryCellX[e];
+            sortedCellY[slot] = entryCellY[e];
+        }
+        indexed = count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the tracked entities together over the holes removed ones left, keeping their order
+    private void closeHoles() {
+        int write = 0;
+        for (int i = 0; i < count; i++) {
+            if (entities[i] != null) {
+                entities[write++] = entities[i];
+            }
+        }
+        Arrays.fill(entities, write, count, null);
+        count = write;
+        holes = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that entity at index covers cell (x, y)
+    private void addEntry(int index, int x, int y) {
+        if (entryCount == entryEntity.length) {
+            int capacity = entryCount * 2;
+            entryEntity = Arrays.copyOf(entryEntity, capacity);
+            entryCellX = Arrays.copyOf(entryCellX, capacity);
+            entryCellY = Arrays.copyOf(entryCellY, capacity);
+            entryBucket = new int[capacity];
+            sortedEntity = new int[capacity];
+            sortedCellX = new int[capacity];
+            sortedCellY = new int[capacity];
+        }
+        entryEntity[entryCount] = index;
+        entryCellX[entryCount] = x;
+        entryCellY[entryCount] = y;
+        entryCount++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows the bucket table so there are at least as many buckets as entries
+    private void resizeTable() {
+        int buckets = bucketMask + 1;
+        while (buckets < entryCount) {
+            buckets *= 2;
+        }
+        if (buckets != bucketMask + 1) {
+            bucketMask = buckets - 1;
+            bucketStart = new int[buckets + 1];
+        }
+    }
+
+    // EFFECTS: returns the index of the cell containing coordinate
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate * invCellSize);
+    }
+
+    // EFFECTS: returns the hash of cell (x, y)
+    private static int hash(int x, int y) {
+        int h = x * HASH_X ^ y * HASH_Y;
+        return h ^ (h >>> 16);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    @Override
+    public int size() {
+        return count - holes;
+    }
+
+}
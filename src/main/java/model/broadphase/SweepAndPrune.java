@@ -0,0 +1,157 @@
+package model.broadphase;
+
+import model.Entity;
+import model.helpers.PairBuffer;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A sort-and-sweep broadphase that keeps entities sorted by the minimum x-coordinate of their
+ * bounding boxes between steps. Since entities barely move from one step to the next, the
+ * array is almost sorted already and insertion sort restores the order in close to linear time.
+ */
+public class SweepAndPrune implements BroadPhase {
+
+    // above this many new entities in one step, a full sort is cheaper than insertion sort
+    private static final int FULL_SORT_THRESHOLD = 32;
+
+    private Entity[] sorted;
+    private double[] minX;
+    private int count;
+    private int pendingAdds;
+    // widest bounding box as of the last update, how far left of a box an overlapping entity can start
+    private double widest;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty broadphase
+    public SweepAndPrune() {
+        this.sorted = new Entity[16];
+        this.minX = new double[16];
+        this.count = 0;
+        this.pendingAdds = 0;
+        this.widest = 0.0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts tracking entity; it is moved into place on the next update
+    @Override
+    public void add(Entity entity) {
+        if (count == sorted.length) {
+            sorted = Arrays.copyOf(sorted, count * 2);
+            minX = Arrays.copyOf(minX, count * 2);
+        }
+        sorted[count] = entity;
+        minX[count] = entity.getMinX();
+        count++;
+        pendingAdds++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops tracking entity, keeping the remaining entities in order
+    @Override
+    public void remove(Entity entity) {
+        for (int i = 0; i < count; i++) {
+            if (sorted[i] == entity) {
+                System.arraycopy(sorted, i + 1, sorted, i, count - i - 1);
+                System.arraycopy(minX, i + 1, minX, i, count - i - 1);
+                count--;
+                sorted[count] = null;
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refreshes the cached keys and restores the sort order
+    @Override
+    public void update() {
+        widest = 0.0;
+        for (int i = 0; i < count; i++) {
+            minX[i] = sorted[i].getMinX();
+            widest = Math.max(widest, sorted[i].getBoundingWidth());
+        }
+
+        if (pendingAdds > FULL_SORT_THRESHOLD) {
+            Arrays.sort(sorted, 0, count, Comparator.comparingDouble(Entity::getMinX));
+            for (int i = 0; i < count; i++) {
+                minX[i] = sorted[i].getMinX();
+            }
+        } else {
+            insertionSort();
+        }
+        pendingAdds = 0;
+    }
+
+    @Override
+    public void queryPairs(PairBuffer pairs) {
+        for (int i = 0; i < count; i++) {
+            Entity a = sorted[i];
+            double maxX = a.getMaxX();
+
+            // everything after i starts further right, so stop at the first one past maxX
+            for (int j = i + 1; j < count && minX[j] <= maxX; j++) {
+                Entity b = sorted[j];
+                if (!a.isAwake() && !b.isAwake()) {
+                    continue;
+                }
+                if (a.getMinY() <= b.getMaxY() && b.getMinY() <= a.getMaxY()) {
+                    pairs.add(a, b);
+                }
+            }
+        }
+    }
+
+    // only entities starting between minX - widest and maxX can overlap the box
+    @Override
+    public void queryBox(double minX, double minY, double maxX, double maxY, List<Entity> found) {
+        for (int i = firstAtLeast(minX - widest); i < count && this.minX[i] <= maxX; i++) {
+            Entity entity = sorted[i];
+            if (minX <= entity.getMaxX() && entity.getMinY() <= maxY && minY <= entity.getMaxY()) {
+                found.add(entity);
+            }
+        }
+    }
+
+    // EFFECTS: returns the index of the first entity whose cached minimum x is at least key,
+    //          count if there is none
+    private int firstAtLeast(double key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (minX[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: insertion sort, close to O(n) when the order barely changed since the last step
+    private void insertionSort() {
+        for (int i = 1; i < count; i++) {
+            Entity entity = sorted[i];
+            double key = minX[i];
+            int j = i - 1;
+            while (j >= 0 && minX[j] > key) {
+                sorted[j + 1] = sorted[j];
+                minX[j + 1] = minX[j];
+                j--;
+            }
+            sorted[j + 1] = entity;
+            minX[j + 1] = key;
+        }
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+}
@@ -0,0 +1,172 @@
+package model.helpers;
+
+import java.util.Arrays;
+
+/**
+ A map from primitive long keys to objects using open addressing with linear probing, so
+ looking up, adding and removing entries never allocates once the table has grown to fit.
+ */
+public class LongHashMap<V> {
+
+    private static final long EMPTY = 0L; // the value for 0 is kept separately in zeroValue
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private V zeroValue;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty map
+    public LongHashMap() {
+        this.keys = new long[16];
+        this.values = new Object[16];
+        this.mask = 15;
+        this.size = 0;
+        this.zeroValue = null;
+    }
+
+    // EFFECTS: returns the value mapped to key, or null if there is none
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == EMPTY) {
+            return zeroValue;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    // REQUIRES: value != null
+    // MODIFIES: this
+    // EFFECTS: maps key to value, returns the value previously mapped to key or null if there was none
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == EMPTY) {
+            V previous = zeroValue;
+            if (previous == null) {
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+
+        // keep the load factor below 3/4
+        if (size * 4 > keys.length * 3) {
+            grow();
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the entry for key, returns its value or null if there was none
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == EMPTY) {
+            V previous = zeroValue;
+            if (previous != null) {
+                size--;
+            }
+            zeroValue = null;
+            return previous;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        V previous = (V) values[slot];
+        keys[slot] = EMPTY;
+        values[slot] = null;
+        size--;
+        closeGap(slot);
+        return previous;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every entry, keeping the table for reuse
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        zeroValue = null;
+        size = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shifts back the entries following the emptied slot so no probe sequence is broken
+    private void closeGap(int gap) {
+        int slot = (gap + 1) & mask;
+        while (keys[slot] != EMPTY) {
+            int home = slot(keys[slot]);
+
+            // move the entry into the gap unless its home lies cyclically between the gap and slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                keys[slot] = EMPTY;
+                values[slot] = null;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the table and re-inserts every entry
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // EFFECTS: returns the home slot of key
+    private int slot(long key) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+}
@@ -0,0 +1,166 @@
+package model.helpers;
+
+import java.util.Arrays;
+
+/**
+ A set of primitive longs using open addressing with linear probing, so adding, removing and
+ looking up keys never allocates once the table has grown to fit.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L; // 0 is tracked separately by hasZero
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty set
+    public LongHashSet() {
+        this(16);
+    }
+
+    // REQUIRES: expectedSize >= 0
+    // MODIFIES: this
+    // EFFECTS: constructs an empty set that can hold expectedSize keys without growing
+    public LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity * 3 < expectedSize * 4) {
+            capacity *= 2;
+        }
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+        this.hasZero = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds key, returns true if it was not already in the set
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        size++;
+
+        // keep the load factor below 3/4
+        if (size * 4 > keys.length * 3) {
+            grow();
+        }
+        return true;
+    }
+
+    // EFFECTS: returns true if key is in the set
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return hasZero;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes key, returns true if it was in the set
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+        size--;
+        closeGap(slot);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every key, keeping the table for reuse
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        hasZero = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shifts back the keys following the emptied slot so no probe sequence is broken
+    private void closeGap(int gap) {
+        int slot = (gap + 1) & mask;
+        while (keys[slot] != EMPTY) {
+            int home = slot(keys[slot]);
+
+            // move the key into the gap unless its home lies cyclically between the gap and slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                keys[slot] = EMPTY;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the table and re-inserts every key
+    private void grow() {
+        long[] old = keys;
+        keys = new long[old.length * 2];
+        mask = keys.length - 1;
+        for (long key : old) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    // EFFECTS: returns the home slot of key
+    private int slot(long key) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+}
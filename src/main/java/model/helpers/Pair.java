@@ -2,12 +2,10 @@ package model.helpers;
 
 import model.Entity;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Objects;
-
 /**
  Simple pair class that just stores two entities as a pair.
+ A pair is identified by the ids of its entities, ordered and packed into a long,
+ so (a, b) and (b, a) share one key.
  */
 public class Pair {
 
@@ -21,6 +19,24 @@ public class Pair {
         this.entityB = entityB;
     }
 
+    // EFFECTS: returns the key of the pair of a and b, the smaller id in the high 32 bits and
+    //          the larger id in the low 32 bits
+    public static long key(Entity a, Entity b) {
+        return key(a.getId(), b.getId());
+    }
+
+    // EFFECTS: returns the key of the pair of entities with ids idA and idB
+    public static long key(int idA, int idB) {
+        int min = Math.min(idA, idB);
+        int max = Math.max(idA, idB);
+        return ((long) min << 32) | (max & 0xffffffffL);
+    }
+
+    // EFFECTS: returns the key of this pair
+    public long getKey() {
+        return key(entityA, entityB);
+    }
+
     // EFFECTS: checks if pair is equal to another pair
     @Override
     public boolean equals(Object object) {
@@ -33,14 +49,13 @@ public class Pair {
         }
         // checks if pair equals pair
         Pair pair = (Pair) object;
-        return (entityA.equals(pair.entityA) && entityB.equals(pair.entityB))
-                || (entityA.equals(pair.entityB) && entityB.equals(pair.entityA));
+        return getKey() == pair.getKey();
     }
 
     // EFFECTS: returns hash code
     @Override
     public int hashCode() {
-        return Objects.hashCode(new HashSet<>(Arrays.asList(entityA, entityB)));
+        return Long.hashCode(getKey());
     }
 
     // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ //
@@ -0,0 +1,78 @@
+package model.helpers;
+
+import model.Entity;
+
+import java.util.Arrays;
+
+/**
+ A reusable list of entity pairs stored in parallel arrays. Pairs are written into the same
+ slots every step, so filling the buffer does not allocate once it has grown to fit.
+ */
+public class PairBuffer {
+
+    private Entity[] entitiesA;
+    private Entity[] entitiesB;
+    private long[] keys;
+    private int size;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty buffer
+    public PairBuffer() {
+        this.entitiesA = new Entity[64];
+        this.entitiesB = new Entity[64];
+        this.keys = new long[64];
+        this.size = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the pair of a and b
+    public void add(Entity a, Entity b) {
+        add(a, b, Pair.key(a, b));
+    }
+
+    // REQUIRES: key == Pair.key(a, b)
+    // MODIFIES: this
+    // EFFECTS: appends the pair of a and b with a key the caller already knows
+    public void add(Entity a, Entity b, long key) {
+        if (size == keys.length) {
+            entitiesA = Arrays.copyOf(entitiesA, size * 2);
+            entitiesB = Arrays.copyOf(entitiesB, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        entitiesA[size] = a;
+        entitiesB[size] = b;
+        keys[size] = key;
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every pair; the entity references are released so removed entities can be collected
+    public void clear() {
+        Arrays.fill(entitiesA, 0, size, null);
+        Arrays.fill(entitiesB, 0, size, null);
+        size = 0;
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the first entity of the pair at index
+    public Entity getEntityA(int index) {
+        return entitiesA[index];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the second entity of the pair at index
+    public Entity getEntityB(int index) {
+        return entitiesB[index];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the key of the pair at index, see Pair.key
+    public long getKey(int index) {
+        return keys[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+}
@@ -80,11 +80,81 @@ public class Vector2 {
         return new Vector2(v.componentX * c, v.componentY * c);
     }
 
+    // MODIFIES: out
+    // EFFECTS: stores the sum of two vectors in out and returns out
+    public static Vector2 add(Vector2 v1, Vector2 v2, Vector2 out) {
+        return out.set(v1.componentX + v2.componentX, v1.componentY + v2.componentY);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: stores the difference of two vectors in out and returns out
+    public static Vector2 subtract(Vector2 v1, Vector2 v2, Vector2 out) {
+        return out.set(v1.componentX - v2.componentX, v1.componentY - v2.componentY);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: stores the vector scaled by a real in out and returns out
+    public static Vector2 scale(Vector2 v, double c, Vector2 out) {
+        return out.set(v.componentX * c, v.componentY * c);
+    }
+
     // EFFECTS: returns dot product of two vectors
     public static double dotProduct(Vector2 v1, Vector2 v2) {
         return (v1.componentX * v2.componentX) + (v1.componentY * v2.componentY);
     }
 
+    // ~~~~~~~~~~~~~ IN PLACE FUNCTIONS ~~~~~~~~~~~~~ //
+
+    // MODIFIES: this
+    // EFFECTS: sets both components and returns this
+    public Vector2 set(double componentX, double componentY) {
+        this.componentX = componentX;
+        this.componentY = componentY;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies v into this and returns this
+    public Vector2 set(Vector2 v) {
+        return set(v.componentX, v.componentY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds v to this and returns this
+    public Vector2 addLocal(Vector2 v) {
+        return set(componentX + v.componentX, componentY + v.componentY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: subtracts v from this and returns this
+    public Vector2 subtractLocal(Vector2 v) {
+        return set(componentX - v.componentX, componentY - v.componentY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: scales this by a real and returns this
+    public Vector2 scaleLocal(double c) {
+        return set(componentX * c, componentY * c);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds v scaled by a real to this and returns this
+    public Vector2 scaleAndAddLocal(Vector2 v, double c) {
+        return set(componentX + v.componentX * c, componentY + v.componentY * c);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: normalizes this and returns this, a zero vector stays zero
+    public Vector2 normalizeLocal() {
+        double length = Math.sqrt((componentX * componentX) + (componentY * componentY));
+
+        // avoids dividing by zero
+        if (length != 0.0) {
+            set(componentX / length, componentY / length);
+        }
+        return this;
+    }
+
     // EFFECTS: returns formatted String of Vector2 class
     @Override
     public String toString() {
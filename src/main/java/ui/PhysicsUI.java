@@ -142,9 +142,12 @@ public class PhysicsUI extends JFrame {
                 accumulator = 0.1f;
             }
 
-            while (accumulator >= PhysicsEngine.DT) {
+            // the engine may change its step size after every step
+            double step = physicsEngine.getStepSize();
+            while (accumulator >= step) {
                 physicsEngine.updatePhysics(); // UPDATES PHYSICS
-                accumulator -= PhysicsEngine.DT;
+                accumulator -= step;
+                step = physicsEngine.getStepSize();
             }
 
             repaint();
@@ -0,0 +1,99 @@
+package headless;
+
+import model.Entity;
+import model.PhysicsEngine;
+import model.SolverMode;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+
+    @Test
+    void testRunMatchesSerialEngines() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int columns = 2 + i;
+            scenarios.add(new Scenario("stack " + i, () -> createStack(columns), 120));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        BatchResult result;
+        try {
+            result = new BatchRunner(pool).run(scenarios);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(6, result.getWorlds().size());
+        for (int i = 0; i < 6; i++) {
+            WorldResult world = result.getWorlds().get(i);
+            assertEquals("stack " + i, world.getName());
+            assertEquals(120, world.getSteps());
+            assertEquals(120 * PhysicsEngine.DT, world.getSimulatedTime(), 1e-9);
+
+            PhysicsEngine serial = new PhysicsEngine(createStack(2 + i));
+            for (int step = 0; step < 120; step++) {
+                serial.updatePhysics();
+            }
+            assertEquals(serial.getEntities().size(), world.getEntities().size());
+            for (int e = 0; e < serial.getEntities().size(); e++) {
+                assertEquals(serial.getEntities().get(e).getPositionX(), world.getEntities().get(e).getPositionX());
+                assertEquals(serial.getEntities().get(e).getPositionY(), world.getEntities().get(e).getPositionY());
+            }
+        }
+    }
+
+    @Test
+    void testThroughput() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("small", () -> createStack(2), 10));
+        scenarios.add(new Scenario("large", () -> createStack(5), 20));
+
+        BatchResult result = new BatchRunner(Runnable::run).run(scenarios);
+        assertEquals(30, result.getTotalSteps());
+        assertEquals(7 * 10 + 16 * 20, result.getTotalBodySteps());
+        assertTrue(result.getElapsedNanos() > 0);
+        assertEquals(result.getTotalSteps() / result.getElapsedSeconds(), result.getStepsPerSecond());
+        assertEquals(result.getTotalBodySteps() / result.getElapsedSeconds(), result.getBodyStepsPerSecond());
+    }
+
+    @Test
+    void testSetupConfiguresEngine() {
+        Scenario scenario = new Scenario("solver", () -> createStack(3),
+                engine -> engine.setSolverMode(SolverMode.ISLANDS), 5);
+        WorldResult world = BatchRunner.runWorld(scenario);
+        assertEquals(5, world.getSteps());
+        assertEquals(10, world.getEntities().size());
+    }
+
+    @Test
+    void testScenarioBuildsFreshWorlds() {
+        Scenario scenario = new Scenario("stack", () -> createStack(2), 30);
+        WorldResult first = BatchRunner.runWorld(scenario);
+        WorldResult second = BatchRunner.runWorld(scenario);
+        assertNotSame(first.getEntities().get(1), second.getEntities().get(1));
+        assertEquals(first.getEntities().get(1).getPositionY(), second.getEntities().get(1).getPositionY());
+    }
+
+    // EFFECTS: returns a floor with columns of three boxes on it
+    private ArrayList<Entity> createStack(int columns) {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 1000, 40);
+        ground.setStatic();
+        scene.add(ground);
+        for (int column = 0; column < columns; column++) {
+            for (int i = 0; i < 3; i++) {
+                scene.add(Entity.createBox(new Vector2(column * 60, 350 - 42 * i), 0.2, 1, 40, 40));
+            }
+        }
+        return scene;
+    }
+
+}
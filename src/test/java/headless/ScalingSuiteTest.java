@@ -0,0 +1,47 @@
+package headless;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScalingSuiteTest {
+
+    @Test
+    void testRunMeasuresEveryCombination() {
+        ScalingSuite suite = new ScalingSuite(Arrays.asList(Workload.PILE_UP, Workload.RAIN),
+                new int[] {20, 40}, new int[] {1, 2}, 2, 3);
+        ScalingReport report = suite.run();
+        assertEquals(8, report.getPoints().size());
+
+        List<ScalingPoint> curve = report.getCurve(Workload.RAIN, 2);
+        assertEquals(2, curve.size());
+        assertEquals(20, curve.get(0).getCount());
+        assertEquals(40, curve.get(1).getCount());
+        for (ScalingPoint point : report.getPoints()) {
+            assertTrue(point.getMsPerStep() > 0);
+        }
+
+        String csv = report.toCsv();
+        assertTrue(csv.startsWith("workload,count,threads,msPerStep\n"));
+        assertEquals(9, csv.split("\n").length);
+        assertTrue(report.toString().contains("PILE_UP"));
+    }
+
+    @Test
+    void testExponent() {
+        List<ScalingPoint> points = new ArrayList<>();
+        for (int count = 100; count <= 1600; count *= 2) {
+            points.add(new ScalingPoint(Workload.SCATTER, count, 1, count * 0.01));
+            points.add(new ScalingPoint(Workload.SCATTER, count, 4, count * count * 1e-6));
+        }
+        ScalingReport report = new ScalingReport(points);
+        assertEquals(1.0, report.getExponent(Workload.SCATTER, 1), 1e-9);
+        assertEquals(2.0, report.getExponent(Workload.SCATTER, 4), 1e-9);
+        assertTrue(Double.isNaN(report.getExponent(Workload.RAIN, 1)));
+    }
+
+}
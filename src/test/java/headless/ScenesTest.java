@@ -0,0 +1,71 @@
+package headless;
+
+import model.Entity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenesTest {
+
+    @Test
+    void testSameSeedSameScene() {
+        for (Workload workload : Workload.values()) {
+            ArrayList<Entity> first = workload.create(300, 7L);
+            ArrayList<Entity> second = workload.create(300, 7L);
+            assertEquals(301, first.size());
+            assertEquals(first.size(), second.size());
+            for (int i = 0; i < first.size(); i++) {
+                assertEquals(first.get(i).getEntityType(), second.get(i).getEntityType());
+                assertEquals(first.get(i).getPositionX(), second.get(i).getPositionX());
+                assertEquals(first.get(i).getPositionY(), second.get(i).getPositionY());
+                assertEquals(first.get(i).getBoundingWidth(), second.get(i).getBoundingWidth());
+                assertEquals(first.get(i).getVelocityY(), second.get(i).getVelocityY());
+            }
+        }
+    }
+
+    @Test
+    void testSeedChangesScene() {
+        ArrayList<Entity> first = Scenes.rain(50, 1L);
+        ArrayList<Entity> second = Scenes.rain(50, 2L);
+        boolean different = false;
+        for (int i = 1; i < first.size(); i++) {
+            different |= first.get(i).getPositionX() != second.get(i).getPositionX();
+        }
+        assertTrue(different);
+    }
+
+    @Test
+    void testFloorFirst() {
+        for (Workload workload : Workload.values()) {
+            ArrayList<Entity> scene = workload.create(20, 3L);
+            assertTrue(scene.get(0).isStatic());
+            for (int i = 1; i < scene.size(); i++) {
+                assertFalse(scene.get(i).isStatic());
+            }
+            assertEquals(1, workload.create(0, 3L).size());
+        }
+    }
+
+    @Test
+    void testPyramid() {
+        // a base of 4 holds 10 boxes in full rows, the 11th would need a base of 5
+        ArrayList<Entity> pyramid = Scenes.pyramid(10, 0L);
+        assertEquals(11, pyramid.size());
+        assertEquals(pyramid.get(1).getPositionY(), pyramid.get(4).getPositionY());
+        assertEquals(pyramid.get(10).getPositionY(), pyramid.get(1).getPositionY() - 120);
+    }
+
+    @Test
+    void testScatterMix() {
+        ArrayList<Entity> boxes = Scenes.scatter(100, 0.0, 40, 5L);
+        ArrayList<Entity> circles = Scenes.scatter(100, 1.0, 40, 5L);
+        for (int i = 1; i < boxes.size(); i++) {
+            assertEquals(Entity.EntityType.BOX, boxes.get(i).getEntityType());
+            assertEquals(Entity.EntityType.CIRCLE, circles.get(i).getEntityType());
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package headless;
+
+import model.Entity;
+import model.PhysicsEngine;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionHostTest {
+
+    @Test
+    void testScheduledSessionsStep() throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        SessionHost host = new SessionHost(scheduler);
+        assertFalse(host.isVirtual());
+        try {
+            runSessions(host);
+        } finally {
+            host.shutdown();
+            assertFalse(scheduler.isShutdown());
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void testDefaultHost() throws InterruptedException {
+        SessionHost host = new SessionHost();
+        assertEquals(Runtime.version().feature() >= 21, host.isVirtual());
+        try {
+            runSessions(host);
+        } finally {
+            host.shutdown();
+        }
+        assertTrue(host.getSessions().isEmpty());
+    }
+
+    // MODIFIES: host
+    // EFFECTS: opens sessions on host, lets them run, and checks they stepped and stop once closed
+    private void runSessions(SessionHost host) throws InterruptedException {
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sessions.add(host.open("world " + i, new PhysicsEngine(createWorld())));
+        }
+        assertEquals(20, host.getSessions().size());
+        Thread.sleep(300);
+
+        for (Session session : sessions) {
+            assertTrue(session.getSteps() > 0);
+            assertTrue(session.getTicks() > 0);
+        }
+        assertTrue(host.getMaxLagNanos() >= 0);
+
+        Session closed = sessions.get(0);
+        host.close(closed);
+        assertFalse(closed.isOpen());
+        assertEquals(19, host.getSessions().size());
+        Thread.sleep(50);
+        long steps = closed.getSteps();
+        Thread.sleep(100);
+        assertEquals(steps, closed.getSteps());
+    }
+
+    // EFFECTS: returns a small world of a box falling onto a floor
+    private ArrayList<Entity> createWorld() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 400, 40);
+        ground.setStatic();
+        scene.add(ground);
+        scene.add(Entity.createBox(new Vector2(100, 300), 0.2, 1, 40, 40));
+        return scene;
+    }
+
+}
@@ -0,0 +1,70 @@
+package headless;
+
+import model.Entity;
+import model.PhysicsEngine;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionTest {
+
+    static final long STEP_NANOS = (long) (PhysicsEngine.DT * 1e9);
+
+    Session session;
+    Entity box;
+
+    @BeforeEach
+    void runBefore() {
+        ArrayList<Entity> entities = new ArrayList<>();
+        box = Entity.createBox(new Vector2(0, 0), 0.5, 1, 20, 20);
+        entities.add(box);
+        session = new Session("sandbox", new PhysicsEngine(entities));
+        session.start(0L);
+    }
+
+    @Test
+    void testAdvanceStepsWholeSteps() {
+        long wait = session.advance(STEP_NANOS * 7 / 2);
+        assertEquals(3, session.getSteps());
+        assertEquals(1, session.getTicks());
+        // half a step is left in the accumulator
+        assertEquals(STEP_NANOS / 2.0, wait, 1000);
+        assertTrue(box.getPositionY() > 0);
+
+        assertEquals(0L, session.getLastLagNanos());
+        session.advance(STEP_NANOS * 7 / 2 + wait);
+        assertEquals(4, session.getSteps());
+        assertEquals(0L, session.getMaxLagNanos());
+    }
+
+    @Test
+    void testLag() {
+        long wait = session.advance(STEP_NANOS);
+        session.advance(STEP_NANOS + wait + 5_000_000L);
+        assertEquals(5_000_000L, session.getLastLagNanos());
+        assertEquals(5_000_000L, session.getMaxLagNanos());
+        assertEquals(5_000_000.0, session.getAverageLagNanos());
+    }
+
+    @Test
+    void testFallingBehindDropsTime() {
+        session.advance(1_000_000_000L);
+        assertEquals(6, session.getSteps());
+        assertEquals(0.9, session.getDroppedTime(), 1e-9);
+    }
+
+    @Test
+    void testWithEngine() {
+        session.withEngine(engine -> engine.addEntity(Entity.EntityType.CIRCLE, 100, 100));
+        session.withEngine(engine -> assertEquals(2, engine.getEntities().size()));
+        assertEquals("sandbox", session.getName());
+        assertTrue(session.isOpen());
+        session.close();
+        assertFalse(session.isOpen());
+    }
+
+}
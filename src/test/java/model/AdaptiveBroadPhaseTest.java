@@ -0,0 +1,108 @@
+package model;
+
+import model.broadphase.AdaptiveBroadPhase;
+import model.broadphase.BruteForceBroadPhase;
+import model.broadphase.DynamicAabbTree;
+import model.broadphase.SpatialHashGrid;
+import model.helpers.Pair;
+import model.helpers.PairBuffer;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveBroadPhaseTest {
+
+    AdaptiveBroadPhase adaptive;
+    List<Entity> boxes;
+
+    @BeforeEach
+    void runBefore() {
+        adaptive = new AdaptiveBroadPhase();
+        boxes = new ArrayList<>();
+
+        // a row of touching boxes, each overlapping its neighbour
+        for (int i = 0; i < 100; i++) {
+            boxes.add(Entity.createBox(new Vector2(i * 20, 0), 1, 1, 25, 25));
+        }
+    }
+
+    @Test
+    void testConstructor() {
+        assertTrue(adaptive.getStrategy() instanceof BruteForceBroadPhase);
+        assertEquals(adaptive.size(), 0);
+    }
+
+    @Test
+    void testStaysBruteForceWhenSmall() {
+        adaptive.add(boxes.get(0));
+        adaptive.add(boxes.get(1));
+        adaptive.update();
+
+        assertTrue(adaptive.getStrategy() instanceof BruteForceBroadPhase);
+        assertEquals(queryPairs().size(), 1);
+    }
+
+    @Test
+    void testSwitchesToGrid() {
+        for (Entity box : boxes) {
+            adaptive.add(box);
+        }
+        adaptive.update();
+
+        assertTrue(adaptive.getStrategy() instanceof SpatialHashGrid);
+        assertEquals(((SpatialHashGrid) adaptive.getStrategy()).getCellSize(), 50);
+        assertEquals(queryPairs().size(), 99);
+    }
+
+    @Test
+    void testSwitchesToTree() {
+        for (Entity box : boxes) {
+            adaptive.add(box);
+        }
+        Entity floor = Entity.createBox(new Vector2(0, 20), 1, 1, 5000, 10);
+        floor.setStatic();
+        adaptive.add(floor);
+        adaptive.update();
+
+        assertTrue(adaptive.getStrategy() instanceof DynamicAabbTree);
+        assertEquals(queryPairs().size(), 199);
+    }
+
+    @Test
+    void testSwitchingKeepsPairs() {
+        for (Entity box : boxes) {
+            adaptive.add(box);
+        }
+        adaptive.update();
+        HashSet<Pair> before = new HashSet<>(queryPairs());
+
+        // drop back below the brute force limit, then evaluate again
+        for (int i = 20; i < boxes.size(); i++) {
+            adaptive.remove(boxes.get(i));
+        }
+        adaptive.evaluate();
+        adaptive.update();
+
+        assertTrue(adaptive.getStrategy() instanceof BruteForceBroadPhase);
+        List<Pair> after = queryPairs();
+        assertEquals(after.size(), 19);
+        assertTrue(before.containsAll(after));
+    }
+
+    private List<Pair> queryPairs() {
+        PairBuffer buffer = new PairBuffer();
+        adaptive.queryPairs(buffer);
+        List<Pair> pairs = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            pairs.add(new Pair(buffer.getEntityA(i), buffer.getEntityB(i)));
+        }
+        return pairs;
+    }
+
+}
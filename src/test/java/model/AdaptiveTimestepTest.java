@@ -0,0 +1,48 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveTimestepTest {
+
+    AdaptiveTimestep timestep;
+
+    @BeforeEach
+    void runBefore() {
+        timestep = new AdaptiveTimestep(0.25, 2, 4, 1);
+    }
+
+    @Test
+    void testConstructor() {
+        AdaptiveTimestep defaults = new AdaptiveTimestep();
+        assertEquals(defaults.getMinStep(), PhysicsEngine.DT / 4);
+        assertEquals(defaults.getMaxStep(), PhysicsEngine.DT * 2);
+        assertEquals(timestep.getMinStep(), 0.25);
+        assertEquals(timestep.getMaxStep(), 2);
+    }
+
+    @Test
+    void testCalmTakesLongestStep() {
+        assertEquals(timestep.nextStep(1, 0, 0), 2);
+        assertEquals(timestep.nextStep(0.25, 1, 0.5), 2);
+    }
+
+    @Test
+    void testSpeedHalvesStep() {
+        // 4 / 3 allows a step of 1, 4 / 10 a step of 0.25
+        assertEquals(timestep.nextStep(2, 3, 0), 1);
+        assertEquals(timestep.nextStep(2, 10, 0), 0.25);
+        // never below the smallest step
+        assertEquals(timestep.nextStep(2, 1000, 0), 0.25);
+    }
+
+    @Test
+    void testPenetrationHalvesStep() {
+        assertEquals(timestep.nextStep(2, 0, 1.5), 1);
+        assertEquals(timestep.nextStep(1, 0, 1.5), 0.5);
+        assertEquals(timestep.nextStep(0.25, 0, 1.5), 0.25);
+    }
+
+}
@@ -0,0 +1,70 @@
+package model;
+
+import model.broadphase.BruteForceBroadPhase;
+import model.helpers.Pair;
+import model.helpers.PairBuffer;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BruteForceBroadPhaseTest {
+
+    BruteForceBroadPhase bruteForce;
+    Entity boxA, boxB, boxFar, staticA, staticB;
+
+    @BeforeEach
+    void runBefore() {
+        bruteForce = new BruteForceBroadPhase();
+        boxA = Entity.createBox(new Vector2(0, 0), 1, 1, 2, 2);
+        boxB = Entity.createBox(new Vector2(1, 1), 1, 1, 2, 2);
+        boxFar = Entity.createBox(new Vector2(100, 0), 1, 1, 2, 2);
+        staticA = Entity.createBox(new Vector2(0, 0), 1, 1, 5, 5);
+        staticB = Entity.createBox(new Vector2(1, 1), 1, 1, 5, 5);
+        staticA.setStatic();
+        staticB.setStatic();
+    }
+
+    @Test
+    void testQueryPairs() {
+        bruteForce.add(boxA);
+        bruteForce.add(boxB);
+        bruteForce.add(boxFar);
+        bruteForce.add(staticA);
+        bruteForce.add(staticB);
+        bruteForce.update();
+
+        List<Pair> pairs = queryPairs();
+        assertEquals(pairs.size(), 5);
+        assertTrue(pairs.contains(new Pair(boxA, boxB)));
+        assertTrue(pairs.contains(new Pair(boxA, staticA)));
+        assertTrue(pairs.contains(new Pair(boxB, staticB)));
+        assertFalse(pairs.contains(new Pair(staticA, staticB)));
+    }
+
+    @Test
+    void testRemove() {
+        bruteForce.add(boxA);
+        bruteForce.add(boxB);
+        assertEquals(bruteForce.size(), 2);
+
+        bruteForce.remove(boxA);
+        assertEquals(bruteForce.size(), 1);
+        assertTrue(queryPairs().isEmpty());
+    }
+
+    private List<Pair> queryPairs() {
+        PairBuffer buffer = new PairBuffer();
+        bruteForce.queryPairs(buffer);
+        List<Pair> pairs = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            pairs.add(new Pair(buffer.getEntityA(i), buffer.getEntityB(i)));
+        }
+        return pairs;
+    }
+
+}
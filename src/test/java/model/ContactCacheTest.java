@@ -0,0 +1,111 @@
+package model;
+
+import model.helpers.Pair;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactCacheTest {
+
+    ContactCache cache;
+    Entity boxA, boxB, boxC;
+
+    @BeforeEach
+    void runBefore() {
+        cache = new ContactCache();
+        boxA = Entity.createBox(new Vector2(), 1, 1, 2, 2);
+        boxB = Entity.createBox(new Vector2(1, 1), 1, 1, 2, 2);
+        boxC = Entity.createBox(new Vector2(2, 0), 1, 1, 2, 2);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(cache.size(), 0);
+        assertNull(cache.get(Pair.key(boxA, boxB)));
+    }
+
+    @Test
+    void testCollideKeepsManifold() {
+        long key = Pair.key(boxA, boxB);
+        cache.beginStep();
+        Manifold first = cache.collide(boxA, boxB, key);
+        first.setAccumulatedImpulse(3);
+        cache.evictStale();
+
+        boxB.setPosition(new Vector2(1, 1.5));
+        cache.beginStep();
+        Manifold second = cache.collide(boxA, boxB, key);
+        cache.evictStale();
+
+        assertSame(first, second);
+        assertSame(cache.get(key), first);
+        assertEquals(second.getAccumulatedImpulse(), 3);
+        assertEquals(second.getDepth(), 0.5);
+    }
+
+    @Test
+    void testEvictStale() {
+        long keyAB = Pair.key(boxA, boxB);
+        long keyAC = Pair.key(boxA, boxC);
+        cache.beginStep();
+        cache.collide(boxA, boxB, keyAB);
+        cache.collide(boxA, boxC, keyAC);
+        cache.evictStale();
+        assertEquals(cache.size(), 2);
+
+        cache.beginStep();
+        cache.collide(boxA, boxC, keyAC);
+        cache.evictStale();
+        assertEquals(cache.size(), 1);
+        assertNull(cache.get(keyAB));
+        assertNotNull(cache.get(keyAC));
+
+        cache.clear();
+        assertEquals(cache.size(), 0);
+        assertNull(cache.get(keyAC));
+    }
+
+    @Test
+    void testAcquire() {
+        long key = Pair.key(boxA, boxB);
+        cache.beginStep();
+        Manifold manifold = cache.acquire(boxA, boxB, key);
+        assertFalse(manifold.isCollision());
+        manifold.update();
+        assertTrue(manifold.isCollision());
+        cache.evictStale();
+
+        cache.beginStep();
+        assertSame(cache.acquire(boxA, boxB, key), manifold);
+        cache.evictStale();
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    void testEvictedManifoldIsReused() {
+        long keyAB = Pair.key(boxA, boxB);
+        long keyBC = Pair.key(boxB, boxC);
+        cache.beginStep();
+        Manifold first = cache.collide(boxA, boxB, keyAB);
+        first.setAccumulatedImpulse(3);
+        cache.evictStale();
+
+        cache.beginStep();
+        cache.evictStale();
+        assertEquals(cache.getPool().getFreeCount(), 1);
+
+        // the new pair gets the old manifold back, reset for its entities
+        cache.beginStep();
+        Manifold second = cache.collide(boxB, boxC, keyBC);
+        cache.evictStale();
+        assertSame(second, first);
+        assertSame(second.getEntityA(), boxB);
+        assertSame(second.getEntityB(), boxC);
+        assertEquals(second.getAccumulatedImpulse(), 0);
+        assertEquals(second.getKey(), keyBC);
+        assertEquals(cache.getPool().getCreated(), 1);
+    }
+
+}
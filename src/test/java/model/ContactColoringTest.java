@@ -0,0 +1,93 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactColoringTest {
+
+    ContactColoring coloring;
+    Islands islands;
+
+    @BeforeEach
+    void runBefore() {
+        coloring = new ContactColoring();
+        islands = new Islands();
+    }
+
+    @Test
+    void testEmpty() {
+        coloring.build(0, new ArrayList<>());
+        assertEquals(coloring.getColorCount(), 0);
+    }
+
+    @Test
+    void testChain() {
+        ArrayList<Entity> entities = new ArrayList<>();
+        Entity floor = Entity.createBox(new Vector2(0, 100), 1, 1, 1000, 10);
+        floor.setStatic();
+        entities.add(floor);
+        List<Manifold> manifolds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Entity box = Entity.createBox(new Vector2(i * 9, 91), 1, 1, 10, 10);
+            entities.add(box);
+            manifolds.add(new Manifold(floor, box));
+            if (i > 0) {
+                manifolds.add(new Manifold(entities.get(i), box));
+            }
+        }
+        islands.build(entities, manifolds);
+        coloring.build(islands.getEntityCount(), manifolds);
+
+        // every box touches the floor, which is shared freely, and at most two neighbours
+        assertEquals(coloring.getColorCount(), 3);
+        assertColoringValid(manifolds);
+    }
+
+    @Test
+    void testOverflow() {
+        ArrayList<Entity> entities = new ArrayList<>();
+        Entity hub = Entity.createCircle(new Vector2(), 1, 1, 100);
+        entities.add(hub);
+        List<Manifold> manifolds = new ArrayList<>();
+        for (int i = 0; i < ContactColoring.MAX_COLORS + 6; i++) {
+            Entity spoke = Entity.createCircle(new Vector2(95, 95), 1, 1, 10);
+            entities.add(spoke);
+            manifolds.add(new Manifold(hub, spoke));
+        }
+        islands.build(entities, manifolds);
+        coloring.build(islands.getEntityCount(), manifolds);
+
+        assertEquals(coloring.getColorCount(), ContactColoring.MAX_COLORS + 1);
+        assertTrue(coloring.isOverflow(ContactColoring.MAX_COLORS));
+        assertFalse(coloring.isOverflow(0));
+        assertEquals(coloring.getColorEnd(ContactColoring.MAX_COLORS)
+                - coloring.getColorStart(ContactColoring.MAX_COLORS), 6);
+    }
+
+    // EFFECTS: checks every manifold is colored once and no two manifolds of a color share an awake entity
+    private void assertColoringValid(List<Manifold> manifolds) {
+        HashSet<Manifold> seen = new HashSet<>();
+        for (int color = 0; color < coloring.getColorCount(); color++) {
+            HashSet<Entity> used = new HashSet<>();
+            for (int i = coloring.getColorStart(color); i < coloring.getColorEnd(color); i++) {
+                Manifold manifold = coloring.getManifold(i);
+                assertTrue(seen.add(manifold));
+                if (manifold.getEntityA().isAwake()) {
+                    assertTrue(used.add(manifold.getEntityA()));
+                }
+                if (manifold.getEntityB().isAwake()) {
+                    assertTrue(used.add(manifold.getEntityB()));
+                }
+            }
+        }
+        assertEquals(seen.size(), manifolds.size());
+    }
+
+}
@@ -0,0 +1,79 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContinuousCollisionTest {
+
+    ContinuousCollision continuous;
+    Entity floor, bullet, target;
+
+    @BeforeEach
+    void runBefore() {
+        continuous = new ContinuousCollision();
+        floor = Entity.createBox(new Vector2(0, 100), 1, 1, 200, 10);
+        floor.setStatic();
+        bullet = Entity.createCircle(new Vector2(50, 0), 1, 1, 2);
+        target = Entity.createCircle(new Vector2(48, 60), 1, 1, 4);
+    }
+
+    @Test
+    void testIsFast() {
+        bullet.setVelocity(new Vector2(0, 60));
+        assertFalse(ContinuousCollision.isFast(bullet, 1.0 / 60));
+        bullet.setVelocity(new Vector2(0, 180));
+        assertTrue(ContinuousCollision.isFast(bullet, 1.0 / 60));
+    }
+
+    @Test
+    void testCircleAgainstBox() {
+        // the bottom of the bullet starts at 4 and meets the floor at 100 after 96 of 200
+        bullet.setVelocity(new Vector2(0, 200));
+        assertEquals(continuous.timeOfImpact(bullet, floor, 1), 96.0 / 200, 1e-12);
+        assertTrue(Vector2.equals(continuous.getNormal(), new Vector2(0, 1)));
+
+        // moving away, or not far enough
+        bullet.setVelocity(new Vector2(0, -200));
+        assertEquals(continuous.timeOfImpact(bullet, floor, 1), ContinuousCollision.NO_IMPACT);
+        bullet.setVelocity(new Vector2(0, 50));
+        assertEquals(continuous.timeOfImpact(bullet, floor, 1), ContinuousCollision.NO_IMPACT);
+
+        // passing beside it
+        bullet.setPosition(300, 0);
+        bullet.setVelocity(new Vector2(0, 200));
+        assertEquals(continuous.timeOfImpact(bullet, floor, 1), ContinuousCollision.NO_IMPACT);
+    }
+
+    @Test
+    void testCircleAgainstBoxFromTheSide() {
+        bullet.setPosition(-50, 102);
+        bullet.setVelocity(new Vector2(100, 0));
+        assertEquals(continuous.timeOfImpact(bullet, floor, 1), 0.46, 1e-12);
+        assertTrue(Vector2.equals(continuous.getNormal(), new Vector2(1, 0)));
+    }
+
+    @Test
+    void testCircleAgainstCircle() {
+        // centers 62 apart, touching at 6
+        bullet.setVelocity(new Vector2(2, 112));
+        target.setVelocity(new Vector2(2, 0));
+        assertEquals(continuous.timeOfImpact(bullet, target, 1), 0.5, 1e-12);
+        assertEquals(continuous.getNormal().getComponentY(), 1, 1e-12);
+
+        bullet.setVelocity(new Vector2(0, 20));
+        assertEquals(continuous.timeOfImpact(bullet, target, 1), ContinuousCollision.NO_IMPACT);
+    }
+
+    @Test
+    void testOverlappingIsLeftToContacts() {
+        bullet.setPosition(50, 97);
+        bullet.setVelocity(new Vector2(0, 500));
+        assertEquals(continuous.timeOfImpact(bullet, floor, 1), ContinuousCollision.NO_IMPACT);
+        target.setPosition(48, 95);
+        assertEquals(continuous.timeOfImpact(bullet, target, 1), ContinuousCollision.NO_IMPACT);
+    }
+
+}
@@ -0,0 +1,41 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectEntityStoreTest extends EntityStoreTest {
+
+    @Override
+    EntityStore createStore() {
+        return new DirectEntityStore(1);
+    }
+
+    @Test
+    void testReleaseDetaches() {
+        store.adopt(circle);
+        store.release(circle);
+        assertTrue(circle.getStore() instanceof DetachedEntityStore);
+        assertTrue(Vector2.equals(circle.getPosition(), new Vector2(1, 2)));
+        assertTrue(circle.getStore().isAwake(circle.getIndex()));
+    }
+
+    @Test
+    void testCapacityOverMaxIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DirectEntityStore(DirectEntityStore.MAX_CAPACITY + 1));
+        assertTrue((long) DirectEntityStore.MAX_CAPACITY * DirectEntityStore.RECORD_SIZE
+                <= Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testGrowthStopsAtMaxCapacity() {
+        int max = DirectEntityStore.MAX_CAPACITY;
+        assertEquals(max, EntityStore.grownCapacity(max / 2 + 1, max));
+        assertEquals(Integer.MAX_VALUE, EntityStore.grownCapacity(Integer.MAX_VALUE / 2 + 1,
+                Integer.MAX_VALUE));
+        assertThrows(IllegalStateException.class, () -> EntityStore.grownCapacity(max, max));
+    }
+
+}
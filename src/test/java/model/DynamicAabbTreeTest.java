@@ -0,0 +1,164 @@
+package model;
+
+import model.broadphase.DynamicAabbTree;
+import model.helpers.Pair;
+import model.helpers.PairBuffer;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicAabbTreeTest {
+
+    DynamicAabbTree tree;
+    Entity boxA, boxB, circleA, boxFar, floor;
+
+    @BeforeEach
+    void runBefore() {
+        tree = new DynamicAabbTree(1);
+        boxA = Entity.createBox(new Vector2(0, 0), 1, 1, 2, 2);
+        boxB = Entity.createBox(new Vector2(1, 1), 1, 1, 2, 2);
+        circleA = Entity.createCircle(new Vector2(1, 5), 1, 1, 1);
+        boxFar = Entity.createBox(new Vector2(100, 0), 1, 1, 2, 2);
+        floor = Entity.createBox(new Vector2(-500, 10), 1, 1, 1000, 2);
+        floor.setStatic();
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(tree.getMargin(), 1);
+        assertEquals(new DynamicAabbTree().getMargin(), DynamicAabbTree.DEFAULT_MARGIN);
+        assertEquals(tree.getHeight(), -1);
+        assertEquals(tree.size(), 0);
+    }
+
+    @Test
+    void testFindPairsOverlapping() {
+        tree.add(boxA);
+        tree.add(boxB);
+        tree.add(boxFar);
+        tree.add(circleA);
+
+        // circleA is within boxA's fat box but does not touch it
+        List<Pair> pairs = findPairs();
+        assertEquals(pairs.size(), 1);
+        assertTrue(pairs.contains(new Pair(boxA, boxB)));
+    }
+
+    @Test
+    void testFindPairsAfterMoving() {
+        tree.add(boxA);
+        tree.add(boxFar);
+        tree.add(floor);
+        assertTrue(findPairs().isEmpty());
+
+        boxFar.setPosition(new Vector2(-1, 1));
+        List<Pair> pairs = findPairs();
+        assertEquals(pairs.size(), 1);
+        assertTrue(pairs.contains(new Pair(boxA, boxFar)));
+
+        boxFar.setPosition(new Vector2(-1, 9));
+        pairs = findPairs();
+        assertEquals(pairs.size(), 1);
+        assertTrue(pairs.contains(new Pair(boxFar, floor)));
+    }
+
+    @Test
+    void testRemove() {
+        tree.add(boxA);
+        tree.add(boxB);
+        tree.add(boxFar);
+        tree.remove(boxB);
+        assertEquals(tree.size(), 2);
+        assertTrue(findPairs().isEmpty());
+
+        tree.remove(boxA);
+        tree.remove(boxFar);
+        assertEquals(tree.size(), 0);
+        assertEquals(tree.getHeight(), -1);
+    }
+
+    @Test
+    void testStaysBalanced() {
+        // inserting in sorted order would build a list without rotations
+        for (int i = 0; i < 1024; i++) {
+            tree.add(Entity.createBox(new Vector2(i * 10, 0), 1, 1, 2, 2));
+        }
+        assertTrue(tree.getHeight() <= 20);
+    }
+
+    @Test
+    void testQueryBox() {
+        tree.add(boxA);
+        tree.add(boxB);
+        tree.add(circleA);
+        tree.add(boxFar);
+        tree.add(floor);
+        tree.update();
+
+        List<Entity> found = new ArrayList<>();
+        tree.queryBox(1.5, 1.5, 2.5, 11, found);
+        assertEquals(found.size(), 4);
+        assertTrue(found.containsAll(List.of(boxA, boxB, circleA, floor)));
+
+        // inside the fattened leaves of boxB and circleA, but clear of the entities
+        found.clear();
+        tree.queryBox(3.5, 3.5, 3.9, 3.9, found);
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void testMatchesAllPairs() {
+        Random random = new Random(7);
+        List<Entity> entities = new ArrayList<>();
+        entities.add(floor);
+        tree.add(floor);
+        for (int i = 0; i < 300; i++) {
+            Entity entity = Entity.createCircle(new Vector2(random.nextInt(400), random.nextInt(400)), 1, 1,
+                    1 + random.nextInt(20));
+            entities.add(entity);
+            tree.add(entity);
+        }
+
+        for (int step = 0; step < 5; step++) {
+            for (Entity entity : entities) {
+                if (!entity.isStatic()) {
+                    entity.setPosition(Vector2.add(entity.getPosition(), new Vector2(0, 3)));
+                }
+            }
+
+            HashSet<Pair> expected = new HashSet<>();
+            for (Entity a : entities) {
+                for (Entity b : entities) {
+                    if (a != b && !(a.isStatic() && b.isStatic())
+                            && a.getMinX() <= b.getMaxX() && b.getMinX() <= a.getMaxX()
+                            && a.getMinY() <= b.getMaxY() && b.getMinY() <= a.getMaxY()) {
+                        expected.add(new Pair(a, b));
+                    }
+                }
+            }
+
+            List<Pair> pairs = findPairs();
+            assertEquals(pairs.size(), expected.size());
+            assertEquals(new HashSet<>(pairs), expected);
+        }
+    }
+
+    private List<Pair> findPairs() {
+        tree.update();
+        PairBuffer buffer = new PairBuffer();
+        tree.queryPairs(buffer);
+        List<Pair> pairs = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            pairs.add(new Pair(buffer.getEntityA(i), buffer.getEntityB(i)));
+        }
+        return pairs;
+    }
+
+}
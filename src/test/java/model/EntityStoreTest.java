@@ -0,0 +1,139 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public abstract class EntityStoreTest {
+
+    EntityStore store;
+    Entity circle, box, staticBox;
+
+    // EFFECTS: returns an empty store of the implementation under test
+    abstract EntityStore createStore();
+
+    @BeforeEach
+    void runBefore() {
+        store = createStore();
+        circle = Entity.createCircle(new Vector2(1, 2), 0.5, 2, 3);
+        circle.setVelocity(new Vector2(4, 5));
+        box = Entity.createBox(new Vector2(6, 7), 0.25, 4, 8, 9);
+        staticBox = Entity.createBox(new Vector2(10, 11), 1, 1, 12, 13);
+        staticBox.setStatic();
+    }
+
+    @Test
+    void testAdoptKeepsState() {
+        EntityStore own = circle.getStore();
+        assertNotSame(own, store);
+        assertTrue(own instanceof DetachedEntityStore);
+
+        store.adopt(circle);
+        store.adopt(box);
+        assertEquals(store.size(), 2);
+        assertEquals(own.size(), 0);
+        assertSame(circle.getStore(), store);
+        assertSame(store.getEntity(circle.getIndex()), circle);
+        assertSame(store.getEntity(box.getIndex()), box);
+
+        assertTrue(Vector2.equals(circle.getPosition(), new Vector2(1, 2)));
+        assertTrue(Vector2.equals(circle.getVelocity(), new Vector2(4, 5)));
+        assertEquals(circle.getRestitution(), 0.5);
+        assertEquals(circle.getInvMass(), 0.5);
+        assertEquals(circle.getRadius(), 3);
+        assertEquals(box.getWidth(), 8);
+        assertEquals(box.getHeight(), 9);
+
+        // adopting twice does nothing
+        store.adopt(circle);
+        assertEquals(store.size(), 2);
+    }
+
+    @Test
+    void testReleaseMovesLastRow() {
+        store.adopt(circle);
+        store.adopt(box);
+        store.adopt(staticBox);
+
+        store.release(circle);
+        assertEquals(store.size(), 2);
+        assertNotSame(circle.getStore(), store);
+        assertTrue(circle.getStore() instanceof DetachedEntityStore);
+        assertTrue(Vector2.equals(circle.getVelocity(), new Vector2(4, 5)));
+        assertEquals(circle.getMaxX(), 7);
+
+        // the last row filled the hole
+        assertEquals(staticBox.getIndex(), 0);
+        assertSame(store.getEntity(0), staticBox);
+        assertTrue(Vector2.equals(staticBox.getPosition(), new Vector2(10, 11)));
+        assertEquals(staticBox.getInvMass(), 0);
+
+        // releasing an entity of another store does nothing
+        store.release(circle);
+        assertEquals(store.size(), 2);
+    }
+
+    @Test
+    void testSweeps() {
+        store.adopt(circle);
+        store.adopt(staticBox);
+        circle.setForce(new Vector2(60, 0));
+
+        store.applyForces(0.5, new Vector2(0, 8));
+        // v += F * dt/2 * invMass + g * dt/2
+        assertTrue(Vector2.equals(circle.getVelocity(), new Vector2(4 + 7.5, 5 + 2)));
+        assertTrue(Vector2.equals(staticBox.getVelocity(), new Vector2()));
+
+        store.applyVelocities(2);
+        assertTrue(Vector2.equals(circle.getPosition(), new Vector2(1 + 23, 2 + 14)));
+        assertTrue(Vector2.equals(staticBox.getPosition(), new Vector2(10, 11)));
+
+        store.clearForces();
+        assertTrue(Vector2.equals(circle.getForce(), new Vector2()));
+    }
+
+    @Test
+    void testGrow() {
+        for (int i = 0; i < 100; i++) {
+            Entity entity = Entity.createCircle(new Vector2(i, -i), 1, 1, 1);
+            store.adopt(entity);
+        }
+        assertEquals(store.size(), 100);
+        for (int i = 0; i < 100; i++) {
+            Entity entity = store.getEntity(i);
+            assertEquals(entity.getIndex(), i);
+            assertEquals(entity.getPositionX(), i);
+            assertEquals(entity.getPositionY(), -i);
+        }
+    }
+
+    @Test
+    void testBoundsFollowPosition() {
+        store.adopt(circle);
+        store.adopt(box);
+        assertEquals(circle.getCenterX(), 1 + 3);
+        assertEquals(circle.getMaxY(), 2 + 6);
+        assertEquals(box.getCenterY(), 7 + 4.5);
+        assertEquals(box.getMaxX(), 6 + 8);
+
+        store.applyVelocities(1);
+        assertEquals(circle.getCenterX(), 5 + 3);
+        assertEquals(circle.getMaxX(), 5 + 6);
+        assertEquals(circle.getCenterY(), 7 + 3);
+
+        box.setPosition(20, 30);
+        assertEquals(box.getMinX(), 20);
+        assertEquals(box.getCenterX(), 24);
+        assertEquals(box.getMaxY(), 39);
+        assertEquals(box.getBoundingWidth(), 8);
+
+        // the bounds move with the row when another row is released
+        store.release(circle);
+        assertEquals(box.getIndex(), 0);
+        assertEquals(box.getCenterY(), 34.5);
+        assertEquals(circle.getMaxX(), 11);
+    }
+
+}
@@ -4,7 +4,11 @@ import model.helpers.Vector2;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class EntityTest {
@@ -62,4 +66,67 @@ public class EntityTest {
         assertEquals(box.getInvMass(), 0.0);
     }
 
+    @Test
+    void testBoundingBox() {
+        assertEquals(circle.getMinX(), 1);
+        assertEquals(circle.getMinY(), 1);
+        assertEquals(circle.getMaxX(), 11);
+        assertEquals(circle.getMaxY(), 11);
+        assertEquals(box.getMinX(), 2);
+        assertEquals(box.getMinY(), 2);
+        assertEquals(box.getMaxX(), 7);
+        assertEquals(box.getMaxY(), 7);
+    }
+
+    @Test
+    void testId() {
+        assertNotEquals(circle.getId(), box.getId());
+        assertTrue(Entity.createBox(new Vector2(), 1, 1, 1, 1).getId() > box.getId());
+    }
+
+    @Test
+    void testSleepAndWake() {
+        assertTrue(box.isAwake());
+        assertFalse(box.isSleeping());
+
+        box.setVelocity(new Vector2(1, 1));
+        ArrayList<Entity> island = new ArrayList<>();
+        island.add(box);
+        island.add(circle);
+        new SleepingIslands().sleep(island);
+        assertTrue(box.isSleeping());
+        assertFalse(box.isAwake());
+        assertTrue(Vector2.equals(box.getVelocity(), new Vector2()));
+
+        // waking one entity wakes the whole island
+        circle.wake();
+        assertTrue(box.isAwake());
+        assertTrue(circle.isAwake());
+        assertEquals(box.getSleepSteps(), 0);
+    }
+
+    @Test
+    void testStaticIsNotAwake() {
+        box.setStatic();
+        assertFalse(box.isAwake());
+        assertFalse(box.isSleeping());
+        box.wake();
+        assertFalse(box.isAwake());
+    }
+
+    @Test
+    void testStateIsCopied() {
+        Vector2 position = box.getPosition();
+        position.setComponentX(100);
+        assertEquals(box.getPositionX(), 2);
+
+        box.setPosition(3, 4);
+        box.setVelocity(5, 6);
+        assertTrue(Vector2.equals(box.getPosition(), new Vector2(3, 4)));
+        assertEquals(box.getVelocityX(), 5);
+        assertEquals(box.getVelocityY(), 6);
+        assertEquals(box.getMinX(), 3);
+        assertEquals(box.getMaxY(), 9);
+    }
+
 }
@@ -0,0 +1,51 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeapEntityStoreTest extends EntityStoreTest {
+
+    @Override
+    EntityStore createStore() {
+        return new HeapEntityStore();
+    }
+
+    @Test
+    void testVectorizedSweepsMatchScalar() {
+        HeapEntityStore scalar = new HeapEntityStore();
+        HeapEntityStore vectorized = new HeapEntityStore();
+        vectorized.setVectorized(true);
+        assertFalse(scalar.isVectorized());
+        assertEquals(vectorized.isVectorized(), VectorKernels.isAvailable());
+
+        // an odd number of bodies, so some are left over after the last whole lane
+        for (int i = 0; i < 37; i++) {
+            for (HeapEntityStore target : new HeapEntityStore[]{scalar, vectorized}) {
+                Entity entity = Entity.createCircle(new Vector2(i * 3.1, -i), 0.5, 1 + i % 5, 2);
+                entity.setVelocity(new Vector2(i * 0.7, 1.3));
+                entity.setForce(new Vector2(-i * 11.3, i * 2.9));
+                if (i % 4 == 0) {
+                    entity.setStatic();
+                }
+                target.adopt(entity);
+            }
+        }
+
+        for (HeapEntityStore target : new HeapEntityStore[]{scalar, vectorized}) {
+            target.applyForces(1.0 / 60, new Vector2(0, 9.8));
+            target.applyVelocities(1.0 / 60);
+            target.clearForces();
+        }
+        for (int i = 0; i < scalar.size(); i++) {
+            Entity expected = scalar.getEntity(i);
+            Entity actual = vectorized.getEntity(i);
+            assertTrue(Vector2.equals(actual.getPosition(), expected.getPosition()));
+            assertTrue(Vector2.equals(actual.getVelocity(), expected.getVelocity()));
+        }
+        // static bodies are masked out of the lanes
+        assertTrue(Vector2.equals(vectorized.getEntity(4).getVelocity(), new Vector2(4 * 0.7, 1.3)));
+    }
+
+}
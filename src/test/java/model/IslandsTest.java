@@ -0,0 +1,97 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IslandsTest {
+
+    Islands islands;
+    ArrayList<Entity> entities;
+    Entity floor, boxA, boxB, boxC, boxD;
+
+    @BeforeEach
+    void runBefore() {
+        islands = new Islands();
+        floor = Entity.createBox(new Vector2(0, 10), 1, 1, 100, 10);
+        floor.setStatic();
+        boxA = Entity.createBox(new Vector2(0, 1), 1, 1, 10, 10);
+        boxB = Entity.createBox(new Vector2(0, -8), 1, 1, 10, 10);
+        boxC = Entity.createBox(new Vector2(50, 1), 1, 1, 10, 10);
+        boxD = Entity.createBox(new Vector2(50, -8), 1, 1, 10, 10);
+
+        entities = new ArrayList<>();
+        entities.add(floor);
+        entities.add(boxA);
+        entities.add(boxC);
+        entities.add(boxB);
+        entities.add(boxD);
+    }
+
+    @Test
+    void testEmpty() {
+        islands.build(new ArrayList<>(), new ArrayList<>());
+        assertEquals(islands.getIslandCount(), 0);
+    }
+
+    @Test
+    void testStaticEntitiesDoNotJoin() {
+        List<Manifold> manifolds = new ArrayList<>();
+        manifolds.add(new Manifold(floor, boxA));
+        manifolds.add(new Manifold(boxC, boxD));
+        manifolds.add(new Manifold(floor, boxC));
+        manifolds.add(new Manifold(boxA, boxB));
+        islands.build(entities, manifolds);
+
+        assertEquals(islands.getIslandCount(), 2);
+
+        // islands come out in order of their first entity, members keep their order
+        assertEquals(islands.getEntityStart(0), 0);
+        assertEquals(islands.getEntityEnd(0), 2);
+        assertSame(islands.getEntity(0), boxA);
+        assertSame(islands.getEntity(1), boxB);
+        assertSame(islands.getEntity(2), boxC);
+        assertSame(islands.getEntity(3), boxD);
+        assertEquals(islands.getEntityEnd(1), 4);
+
+        assertEquals(islands.getManifoldStart(0), 0);
+        assertEquals(islands.getManifoldEnd(0), 2);
+        assertSame(islands.getManifold(0), manifolds.get(0));
+        assertSame(islands.getManifold(1), manifolds.get(3));
+        assertSame(islands.getManifold(2), manifolds.get(1));
+        assertSame(islands.getManifold(3), manifolds.get(2));
+        assertEquals(islands.getManifoldEnd(1), 4);
+    }
+
+    @Test
+    void testSingleIsland() {
+        List<Manifold> manifolds = new ArrayList<>();
+        manifolds.add(new Manifold(boxA, boxB));
+        manifolds.add(new Manifold(boxB, boxD));
+        manifolds.add(new Manifold(boxC, boxD));
+        islands.build(entities, manifolds);
+
+        assertEquals(islands.getIslandCount(), 1);
+        assertEquals(islands.getEntityEnd(0), 4);
+        assertEquals(islands.getManifoldEnd(0), 3);
+    }
+
+    @Test
+    void testSleepingEntitiesLeftOut() {
+        ArrayList<Entity> island = new ArrayList<>();
+        island.add(boxC);
+        new SleepingIslands().sleep(island);
+        islands.build(entities, new ArrayList<>());
+
+        assertEquals(islands.getIslandCount(), 3);
+        for (int i = 0; i < 3; i++) {
+            assertNotSame(islands.getEntity(i), boxC);
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package model;
+
+import model.helpers.LongHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashMapTest {
+
+    LongHashMap<String> map;
+
+    @BeforeEach
+    void runBefore() {
+        map = new LongHashMap<>();
+    }
+
+    @Test
+    void testConstructor() {
+        assertTrue(map.isEmpty());
+        assertEquals(map.size(), 0);
+        assertNull(map.get(1));
+    }
+
+    @Test
+    void testPutGet() {
+        assertNull(map.put(5, "a"));
+        assertEquals(map.put(5, "b"), "a");
+        assertNull(map.put(-5, "c"));
+        assertEquals(map.size(), 2);
+
+        assertEquals(map.get(5), "b");
+        assertEquals(map.get(-5), "c");
+        assertNull(map.get(6));
+    }
+
+    @Test
+    void testZero() {
+        assertNull(map.get(0));
+        assertNull(map.put(0, "a"));
+        assertEquals(map.get(0), "a");
+        assertEquals(map.size(), 1);
+
+        assertEquals(map.remove(0), "a");
+        assertNull(map.remove(0));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testRemoveClear() {
+        map.put(1, "a");
+        map.put(2, "b");
+        assertEquals(map.remove(1), "a");
+        assertNull(map.remove(1));
+        assertEquals(map.get(2), "b");
+
+        map.put(0, "c");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+        assertNull(map.get(2));
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        Random random = new Random(5);
+        HashMap<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                String value = Integer.toString(i);
+                assertEquals(map.put(key, value), expected.put(key, value));
+            } else {
+                assertEquals(map.remove(key), expected.remove(key));
+            }
+        }
+
+        assertEquals(map.size(), expected.size());
+        for (long key = 0; key < 2000; key++) {
+            assertEquals(map.get(key), expected.get(key));
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package model;
+
+import model.helpers.LongHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    LongHashSet set;
+
+    @BeforeEach
+    void runBefore() {
+        set = new LongHashSet();
+    }
+
+    @Test
+    void testConstructor() {
+        assertTrue(set.isEmpty());
+        assertEquals(set.size(), 0);
+        assertTrue(new LongHashSet(1000).isEmpty());
+    }
+
+    @Test
+    void testAddContains() {
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(-5));
+        assertTrue(set.add(Long.MAX_VALUE));
+        assertEquals(set.size(), 3);
+
+        assertTrue(set.contains(5));
+        assertTrue(set.contains(-5));
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertFalse(set.contains(6));
+    }
+
+    @Test
+    void testZero() {
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(set.size(), 1);
+
+        assertTrue(set.remove(0));
+        assertFalse(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void testRemove() {
+        set.add(1);
+        set.add(2);
+        assertTrue(set.remove(1));
+        assertFalse(set.remove(1));
+        assertFalse(set.contains(1));
+        assertTrue(set.contains(2));
+        assertEquals(set.size(), 1);
+    }
+
+    @Test
+    void testClear() {
+        set.add(0);
+        set.add(1);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    void testMatchesHashSet() {
+        Random random = new Random(3);
+        HashSet<Long> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                assertEquals(set.add(key), expected.add(key));
+            } else {
+                assertEquals(set.remove(key), expected.remove(key));
+            }
+        }
+
+        assertEquals(set.size(), expected.size());
+        for (long key = 0; key < 2000; key++) {
+            assertEquals(set.contains(key), expected.contains(key));
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ManifoldPoolTest {
+
+    ManifoldPool pool;
+    Entity circleA, circleB, circleC;
+
+    @BeforeEach
+    void runBefore() {
+        pool = new ManifoldPool();
+        circleA = Entity.createCircle(new Vector2(), 1, 1, 2);
+        circleB = Entity.createCircle(new Vector2(3, 0), 1, 1, 2);
+        circleC = Entity.createCircle(new Vector2(100, 0), 1, 1, 2);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(pool.getCreated(), 0);
+        assertEquals(pool.getFreeCount(), 0);
+    }
+
+    @Test
+    void testObtainCreatesWhenEmpty() {
+        Manifold first = pool.obtain(circleA, circleB);
+        Manifold second = pool.obtain(circleA, circleC);
+        assertNotSame(first, second);
+        assertEquals(pool.getCreated(), 2);
+        assertFalse(first.isCollision());
+        first.update();
+        assertTrue(first.isCollision());
+    }
+
+    @Test
+    void testRecycleResets() {
+        Manifold manifold = pool.obtain(circleA, circleB);
+        manifold.update();
+        manifold.setAccumulatedImpulse(5);
+        manifold.setTargetVelocity(2);
+        manifold.setLastStep(7);
+
+        pool.recycle(manifold);
+        assertEquals(pool.getFreeCount(), 1);
+        assertNull(manifold.getEntityA());
+        assertNull(manifold.getEntityB());
+
+        Manifold reused = pool.obtain(circleA, circleC);
+        assertSame(reused, manifold);
+        assertEquals(pool.getCreated(), 1);
+        assertEquals(pool.getFreeCount(), 0);
+        assertSame(reused.getEntityB(), circleC);
+        assertFalse(reused.isCollision());
+        assertNull(reused.getNormal());
+        assertEquals(reused.getDepth(), 0);
+        assertEquals(reused.getAccumulatedImpulse(), 0);
+        assertEquals(reused.getTargetVelocity(), 0);
+        assertEquals(reused.getLastStep(), 0);
+        reused.update();
+        assertFalse(reused.isCollision());
+    }
+
+    @Test
+    void testGrowsFreeList() {
+        Manifold[] manifolds = new Manifold[40];
+        for (int i = 0; i < manifolds.length; i++) {
+            manifolds[i] = pool.obtain(circleA, circleB);
+        }
+        for (Manifold manifold : manifolds) {
+            pool.recycle(manifold);
+        }
+        assertEquals(pool.getFreeCount(), 40);
+        for (int i = 0; i < manifolds.length; i++) {
+            pool.obtain(circleB, circleC);
+        }
+        assertEquals(pool.getCreated(), 40);
+    }
+
+}
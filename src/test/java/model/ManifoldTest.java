@@ -126,4 +126,50 @@ public class ManifoldTest {
         assertEquals(failB.getDepth(), 0.0);
     }
 
+    @Test
+    void testUpdate() {
+        Manifold manifold = new Manifold(boxA, boxBa);
+        manifold.setAccumulatedImpulse(2);
+        assertTrue(manifold.isCollision());
+        assertEquals(manifold.getKey(), Pair.key(boxA, boxBa));
+
+        boxBa.setPosition(new Vector2(1, 1.5));
+        manifold.update();
+        assertTrue(manifold.isCollision());
+        assertEquals(manifold.getDepth(), 0.5);
+        assertEquals(manifold.getAccumulatedImpulse(), 2);
+
+        boxBa.setPosition(new Vector2(5, 5));
+        manifold.update();
+        assertFalse(manifold.isCollision());
+        assertEquals(manifold.getAccumulatedImpulse(), 0);
+    }
+
+    @Test
+    void testShapeSpecificUpdates() {
+        Manifold circles = new Manifold(circleA, circleB, false);
+        circles.updateCircleCircle();
+        assertTrue(circles.isCollision());
+        assertEquals(circles.getDepth(), new Manifold(circleA, circleB).getDepth());
+
+        Manifold circleBox = new Manifold(circleA, boxBa, false);
+        circleBox.updateCircleBox();
+        Manifold expected = new Manifold(circleA, boxBa);
+        assertEquals(circleBox.isCollision(), expected.isCollision());
+        assertTrue(Vector2.equals(circleBox.getNormal(), expected.getNormal()));
+
+        Manifold boxCircle = new Manifold(boxBa, circleA, false);
+        boxCircle.updateBoxCircle();
+        expected = new Manifold(boxBa, circleA);
+        assertEquals(boxCircle.getDepth(), expected.getDepth());
+        assertTrue(Vector2.equals(boxCircle.getNormal(), expected.getNormal()));
+
+        Manifold boxes = new Manifold(boxA, boxC, false);
+        boxes.setAccumulatedImpulse(2);
+        boxes.updateBoxBox();
+        assertFalse(boxes.isCollision());
+        assertNull(boxes.getNormal());
+        assertEquals(boxes.getAccumulatedImpulse(), 0);
+    }
+
 }
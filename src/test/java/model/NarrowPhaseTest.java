@@ -0,0 +1,126 @@
+package model;
+
+import model.broadphase.SweepAndPrune;
+import model.helpers.PairBuffer;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NarrowPhaseTest {
+
+    PairBuffer pairs;
+
+    @BeforeEach
+    void runBefore() {
+        Random random = new Random(11);
+        SweepAndPrune broadPhase = new SweepAndPrune();
+        for (int i = 0; i < 3000; i++) {
+            Vector2 position = new Vector2(random.nextInt(1500), random.nextInt(1500));
+            if (random.nextBoolean()) {
+                broadPhase.add(Entity.createCircle(position, 1, 1, 5 + random.nextInt(20)));
+            } else {
+                broadPhase.add(Entity.createBox(position, 1, 1, 10 + random.nextInt(30), 10 + random.nextInt(30)));
+            }
+        }
+        broadPhase.update();
+        pairs = new PairBuffer();
+        broadPhase.queryPairs(pairs);
+    }
+
+    @Test
+    void testSerial() {
+        NarrowPhase narrowPhase = new NarrowPhase();
+        assertNull(narrowPhase.getExecutor());
+        List<Manifold> collisions = new ArrayList<>();
+        narrowPhase.collide(pairs, new ContactCache(), collisions);
+
+        int expected = 0;
+        for (int i = 0; i < pairs.size(); i++) {
+            if (new Manifold(pairs.getEntityA(i), pairs.getEntityB(i)).isCollision()) {
+                expected++;
+            }
+        }
+        assertEquals(collisions.size(), expected);
+    }
+
+    @Test
+    void testParallelMatchesSerial() {
+        assertTrue(pairs.size() > NarrowPhase.CHUNK_SIZE * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        NarrowPhase serial = new NarrowPhase();
+        NarrowPhase parallel = new NarrowPhase();
+        parallel.setExecutor(executor);
+        ContactCache serialContacts = new ContactCache();
+        ContactCache parallelContacts = new ContactCache();
+
+        // twice, so the second run updates manifolds from the cache
+        for (int run = 0; run < 2; run++) {
+            List<Manifold> expected = new ArrayList<>();
+            List<Manifold> actual = new ArrayList<>();
+            serialContacts.beginStep();
+            parallelContacts.beginStep();
+            serial.collide(pairs, serialContacts, expected);
+            parallel.collide(pairs, parallelContacts, actual);
+
+            assertEquals(actual.size(), expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(actual.get(i).getKey(), expected.get(i).getKey());
+                assertEquals(actual.get(i).getDepth(), expected.get(i).getDepth());
+                assertTrue(Vector2.equals(actual.get(i).getNormal(), expected.get(i).getNormal()));
+            }
+            assertEquals(parallelContacts.size(), serialContacts.size());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void testVectorizedMatchesSerial() {
+        NarrowPhase serial = new NarrowPhase();
+        NarrowPhase vectorized = new NarrowPhase();
+        vectorized.setVectorized(true);
+        assertFalse(serial.isVectorized());
+        assertEquals(vectorized.isVectorized(), VectorKernels.isAvailable());
+
+        List<Manifold> expected = new ArrayList<>();
+        List<Manifold> actual = new ArrayList<>();
+        serial.collide(pairs, new ContactCache(), expected);
+        vectorized.collide(pairs, new ContactCache(), actual);
+
+        assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(actual.get(i).getKey(), expected.get(i).getKey());
+            assertEquals(actual.get(i).getDepth(), expected.get(i).getDepth());
+            assertTrue(Vector2.equals(actual.get(i).getNormal(), expected.get(i).getNormal()));
+        }
+    }
+
+    @Test
+    void testBucketsKeepPairOrder() {
+        NarrowPhase narrowPhase = new NarrowPhase();
+        List<Manifold> collisions = new ArrayList<>();
+        narrowPhase.collide(pairs, new ContactCache(), collisions);
+
+        // the shapes are mixed, but the collisions come out in pair order with the same results
+        int next = 0;
+        for (int i = 0; i < pairs.size(); i++) {
+            Manifold expected = new Manifold(pairs.getEntityA(i), pairs.getEntityB(i));
+            if (!expected.isCollision()) {
+                continue;
+            }
+            Manifold actual = collisions.get(next++);
+            assertEquals(actual.getKey(), expected.getKey());
+            assertEquals(actual.getDepth(), expected.getDepth());
+            assertTrue(Vector2.equals(actual.getNormal(), expected.getNormal()));
+        }
+        assertEquals(next, collisions.size());
+    }
+
+}
@@ -0,0 +1,47 @@
+package model;
+
+import model.helpers.Pair;
+import model.helpers.PairBuffer;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PairBufferTest {
+
+    PairBuffer buffer;
+    Entity a;
+    Entity b;
+
+    @BeforeEach
+    void runBefore() {
+        buffer = new PairBuffer();
+        a = Entity.createBox(new Vector2(), 1, 1, 1, 1);
+        b = Entity.createBox(new Vector2(), 1, 1, 2, 2);
+    }
+
+    @Test
+    void testAdd() {
+        buffer.add(a, b);
+        assertEquals(buffer.size(), 1);
+        assertEquals(buffer.getEntityA(0), a);
+        assertEquals(buffer.getEntityB(0), b);
+        assertEquals(buffer.getKey(0), Pair.key(a, b));
+    }
+
+    @Test
+    void testGrowAndClear() {
+        for (int i = 0; i < 1000; i++) {
+            buffer.add(b, a);
+        }
+        assertEquals(buffer.size(), 1000);
+        assertEquals(buffer.getEntityA(999), b);
+
+        buffer.clear();
+        assertEquals(buffer.size(), 0);
+        buffer.add(a, b);
+        assertEquals(buffer.getEntityA(0), a);
+    }
+
+}
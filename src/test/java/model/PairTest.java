@@ -62,4 +62,15 @@ public class PairTest {
         assertEquals(pairBothA1.hashCode(), pairBothA2.hashCode());
     }
 
+    @Test
+    void testKey() {
+        assertEquals(pairBothA1.getKey(), pairBothB.getKey());
+        assertEquals(Pair.key(a, b), Pair.key(b, a));
+        assertNotEquals(pairA.getKey(), pairB.getKey());
+        assertNotEquals(pairA.getKey(), pairBothA1.getKey());
+
+        assertEquals(Pair.key(1, 2), (1L << 32) | 2);
+        assertEquals(Pair.key(7, 3), (3L << 32) | 7);
+    }
+
 }
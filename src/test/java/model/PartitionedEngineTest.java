@@ -0,0 +1,218 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedEngineTest {
+
+    @Test
+    void testPilesAwayFromBordersMatchEngine() {
+        ArrayList<Entity> expected = createPiles();
+        PhysicsEngine engine = new PhysicsEngine(expected);
+        ArrayList<Entity> actual = createPiles();
+        PartitionedEngine partitioned = new PartitionedEngine(actual, new double[] {250, 450, 650}, 20);
+        assertEquals(4, partitioned.getRegionCount());
+
+        for (int step = 0; step < 300; step++) {
+            engine.updatePhysics();
+            partitioned.updatePhysics();
+        }
+        assertPositionsWithin(expected, actual, 1e-9);
+        assertEquals(expected.size(), partitioned.getEntities().size());
+    }
+
+    @Test
+    void testParallelMatchesSerial() {
+        ArrayList<Entity> serialEntities = createPiles();
+        PartitionedEngine serial = new PartitionedEngine(serialEntities, 4, 20);
+        ArrayList<Entity> parallelEntities = createPiles();
+        PartitionedEngine parallel = new PartitionedEngine(parallelEntities, 4, 20);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        parallel.setExecutor(pool);
+        try {
+            for (int step = 0; step < 200; step++) {
+                serial.updatePhysics();
+                parallel.updatePhysics();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertPositionsWithin(serialEntities, parallelEntities, 0.0);
+    }
+
+    @Test
+    void testEntityMigratesAcrossBorders() {
+        ArrayList<Entity> expected = createRoller(false);
+        PhysicsEngine engine = new PhysicsEngine(expected);
+        ArrayList<Entity> actual = createRoller(false);
+        PartitionedEngine partitioned = new PartitionedEngine(actual, new double[] {300, 600, 900}, 20);
+        Entity circle = actual.get(1);
+        assertEquals(0, partitioned.getRegionOf(circle));
+
+        for (int step = 0; step < 400; step++) {
+            engine.updatePhysics();
+            partitioned.updatePhysics();
+        }
+        assertEquals(3, partitioned.getRegionOf(circle));
+        assertTrue(partitioned.getEngine(3).getEntities().contains(circle));
+        assertFalse(partitioned.getEngine(0).getEntities().contains(circle));
+        assertSame(partitioned.getEngine(3).getStore(), circle.getStore());
+        assertPositionsWithin(expected, actual, 1e-9);
+    }
+
+    @Test
+    void testContactAcrossBorderWithinTolerance() {
+        ArrayList<Entity> expected = createRoller(true);
+        PhysicsEngine engine = new PhysicsEngine(expected);
+        ArrayList<Entity> narrow = createRoller(true);
+        PartitionedEngine narrowMargin = new PartitionedEngine(narrow, new double[] {300, 600, 900}, 20);
+        ArrayList<Entity> wide = createRoller(true);
+        PartitionedEngine wideMargin = new PartitionedEngine(wide, new double[] {300, 600, 900}, 200);
+
+        for (int step = 0; step < 400; step++) {
+            engine.updatePhysics();
+            narrowMargin.updatePhysics();
+            wideMargin.updatePhysics();
+        }
+        // the row of boxes pushed across the border lags a little unless its whole length is mirrored
+        assertPositionsWithin(expected, narrow, 5.0);
+        assertPositionsWithin(expected, wide, 1e-6);
+    }
+
+    @Test
+    void testMigratingLeavesRestingEntitiesAsleep() {
+        ArrayList<Entity> entities = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 2000, 40);
+        ground.setStatic();
+        entities.add(ground);
+        for (int i = 0; i < 20; i++) {
+            entities.add(Entity.createBox(new Vector2(50 + i * 45, 361), 0, 1, 40, 40));
+        }
+        Entity circle = Entity.createCircle(new Vector2(100, 100), 0.5, 1, 15);
+        entities.add(circle);
+        PartitionedEngine partitioned = new PartitionedEngine(entities, new double[] {500, 1000, 1500}, 20);
+        for (int step = 0; step < 150; step++) {
+            partitioned.updatePhysics();
+        }
+        Entity far = entities.get(20);
+        assertTrue(far.isSleeping());
+
+        // the circle rolls along the boxes into the next strip, far from the last box
+        for (int step = 0; step < 200 && partitioned.getRegionOf(circle) == 0; step++) {
+            circle.wake();
+            circle.setVelocity(new Vector2(300, circle.getVelocityY()));
+            partitioned.updatePhysics();
+        }
+        assertEquals(1, partitioned.getRegionOf(circle));
+        partitioned.updatePhysics();
+        assertTrue(far.isSleeping());
+    }
+
+    @Test
+    void testGhosts() {
+        ArrayList<Entity> entities = createRoller(false);
+        PartitionedEngine partitioned = new PartitionedEngine(entities, new double[] {300, 600, 900}, 20);
+        partitioned.updatePhysics();
+        // the floor is owned by the strip its center is in and mirrored into the other three
+        assertEquals(3, partitioned.getRegionOf(entities.get(0)));
+        assertEquals(1, partitioned.getGhostCount(0));
+        assertEquals(1, partitioned.getGhostCount(1));
+        assertEquals(1, partitioned.getGhostCount(2));
+        assertEquals(0, partitioned.getGhostCount(3));
+        assertEquals(2, partitioned.getEngine(0).getEntities().size());
+
+        // the circle is mirrored into the next strip while it is within the margin of it
+        Entity circle = entities.get(1);
+        boolean mirrored = false;
+        for (int step = 0; step < 80 && partitioned.getRegionOf(circle) == 0; step++) {
+            partitioned.updatePhysics();
+            if (partitioned.getGhostCount(1) == 2) {
+                mirrored = true;
+                Entity ghost = partitioned.getEngine(1).getEntities().get(1);
+                assertNotSame(circle, ghost);
+                assertEquals(circle.getRadius(), ghost.getRadius());
+            }
+        }
+        assertTrue(mirrored);
+    }
+
+    @Test
+    void testAddingOrRemovingEntitiesIsRejected() {
+        ArrayList<Entity> entities = createRoller(false);
+        PartitionedEngine partitioned = new PartitionedEngine(entities, new double[] {300, 600, 900}, 20);
+        partitioned.updatePhysics();
+        Entity circle = entities.remove(1);
+        assertThrows(IllegalStateException.class, partitioned::updatePhysics);
+        entities.add(1, circle);
+        partitioned.updatePhysics();
+
+        entities.set(1, Entity.createCircle(new Vector2(100, 100), 1, 1, 10));
+        assertThrows(IllegalStateException.class, partitioned::updatePhysics);
+        entities.set(1, circle);
+        partitioned.updatePhysics();
+
+        partitioned.getEngine(2).addEntity(Entity.EntityType.CIRCLE, 700, 100);
+        assertThrows(IllegalStateException.class, partitioned::updatePhysics);
+    }
+
+    @Test
+    void testBalancedBorders() {
+        ArrayList<Entity> entities = createPiles();
+        double[] borders = PartitionedEngine.balancedBorders(entities, 4);
+        assertEquals(3, borders.length);
+        PartitionedEngine partitioned = new PartitionedEngine(entities, borders, 20);
+        for (int r = 0; r < 4; r++) {
+            int owned = partitioned.getEngine(r).getEntities().size() - partitioned.getGhostCount(r);
+            assertTrue(owned >= 15 && owned <= 18);
+        }
+        assertEquals(0, PartitionedEngine.balancedBorders(entities, 1).length);
+    }
+
+    // REQUIRES: expected and actual hold the same scene
+    // EFFECTS: fails unless every entity of actual is within tolerance of the same entity of expected
+    private void assertPositionsWithin(ArrayList<Entity> expected, ArrayList<Entity> actual, double tolerance) {
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPositionX(), actual.get(i).getPositionX(), tolerance);
+            assertEquals(expected.get(i).getPositionY(), actual.get(i).getPositionY(), tolerance);
+        }
+    }
+
+    // EFFECTS: returns a floor with 8 separate piles of boxes falling onto it
+    private ArrayList<Entity> createPiles() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 800, 40);
+        ground.setStatic();
+        scene.add(ground);
+        for (int pile = 0; pile < 8; pile++) {
+            for (int i = 0; i < 8; i++) {
+                scene.add(Entity.createBox(new Vector2(pile * 100 + i % 3, 350 - 42 * i), 0.2, 1, 40, 40));
+            }
+        }
+        return scene;
+    }
+
+    // EFFECTS: returns a floor with a circle bouncing along it, and a row of boxes in its way
+    //          if boxes
+    private ArrayList<Entity> createRoller(boolean boxes) {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 2000, 40);
+        ground.setStatic();
+        scene.add(ground);
+        Entity circle = Entity.createCircle(new Vector2(100, 300), 0.5, 1, 15);
+        circle.setVelocity(new Vector2(150, -50));
+        scene.add(circle);
+        if (boxes) {
+            for (int i = 0; i < 5; i++) {
+                scene.add(Entity.createBox(new Vector2(480 + i * 41, 358), 0.2, 1, 40, 40));
+            }
+        }
+        return scene;
+    }
+
+}
@@ -1,10 +1,22 @@
 package model;
 
+import model.broadphase.AdaptiveBroadPhase;
+import model.broadphase.BroadPhase;
+import model.broadphase.BruteForceBroadPhase;
+import model.broadphase.DynamicAabbTree;
+import model.broadphase.SpatialHashGrid;
+import model.broadphase.SweepAndPrune;
+import model.helpers.Pair;
 import model.helpers.Vector2;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,6 +67,24 @@ public class PhysicsEngineTest {
         assertEquals(addedEntity.getEntityType(), Entity.EntityType.BOX);
     }
 
+    @Test
+    void testSeededAddEntity() {
+        PhysicsEngine first = new PhysicsEngine(new ArrayList<>());
+        PhysicsEngine second = new PhysicsEngine(new ArrayList<>());
+        first.setSeed(11L);
+        second.setSeed(11L);
+        for (int i = 0; i < 10; i++) {
+            first.addEntity(i % 2 == 0 ? Entity.EntityType.BOX : Entity.EntityType.CIRCLE, 100, 100);
+            second.addEntity(i % 2 == 0 ? Entity.EntityType.BOX : Entity.EntityType.CIRCLE, 100, 100);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first.getEntities().get(i).getWidth(), second.getEntities().get(i).getWidth());
+            assertEquals(first.getEntities().get(i).getHeight(), second.getEntities().get(i).getHeight());
+            assertEquals(first.getEntities().get(i).getRadius(), second.getEntities().get(i).getRadius());
+            assertEquals(first.getEntities().get(i).getPositionX(), second.getEntities().get(i).getPositionX());
+        }
+    }
+
     @Test
     void testResetEntities() {
         physicsEngine.resetEntities();
@@ -142,5 +172,569 @@ public class PhysicsEngineTest {
         assertFalse(Vector2.equals(sb.getPosition(), new Vector2()));
     }
 
+    @Test
+    void testUpdatePhysicsAfterRemoving() {
+        physicsEngine.updatePhysics();
+        physicsEngine.resetEntities();
+        physicsEngine.updatePhysics();
+
+        assertEquals(physicsEngine.getEntities().size(), 1);
+        assertTrue(Vector2.equals(staticBox.getPosition(), new Vector2(0, 1.9)));
+
+        // removed entities leave the engine's store but keep their state
+        assertEquals(physicsEngine.getStore().size(), 1);
+        assertNotSame(circleB.getStore(), physicsEngine.getStore());
+        assertTrue(circleB.getVelocity().getComponentY() > 0);
+    }
+
+    @Test
+    void testConstructorWithBroadPhase() {
+        BroadPhase broadPhase = new SpatialHashGrid();
+        physicsEngine = new PhysicsEngine(entities, broadPhase);
+        assertEquals(physicsEngine.getBroadPhase(), broadPhase);
+        assertTrue(new PhysicsEngine(entities).getBroadPhase() instanceof SweepAndPrune);
+
+        physicsEngine.updatePhysics();
+        assertEquals(broadPhase.size(), entities.size());
+    }
+
+    @Test
+    void testBroadPhasesAgree() {
+        BroadPhase[] broadPhases = {new BruteForceBroadPhase(), new SweepAndPrune(), new SpatialHashGrid(),
+                new DynamicAabbTree(), new AdaptiveBroadPhase()};
+        double[] positions = new double[broadPhases.length];
+
+        for (int i = 0; i < broadPhases.length; i++) {
+            ArrayList<Entity> stack = new ArrayList<>();
+            Entity floor = Entity.createBox(new Vector2(0, 100), 0, 0, 200, 10);
+            floor.setStatic();
+            stack.add(floor);
+            for (int j = 0; j < 5; j++) {
+                stack.add(Entity.createBox(new Vector2(50, 80 - j * 21), 0.5, 1, 20, 20));
+            }
+
+            PhysicsEngine engine = new PhysicsEngine(stack, broadPhases[i]);
+            for (int step = 0; step < 60; step++) {
+                engine.updatePhysics();
+            }
+            positions[i] = stack.get(5).getPosition().getComponentY();
+        }
+
+        for (double position : positions) {
+            assertEquals(position, positions[0], 1e-9);
+        }
+    }
+
+    @Test
+    void testContactsCarryOver() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 100), 1, 1, 200, 20);
+        ground.setStatic();
+        Entity box = Entity.createBox(new Vector2(50, 81), 1, 1, 20, 20);
+        scene.add(ground);
+        scene.add(box);
+        PhysicsEngine engine = new PhysicsEngine(scene);
+
+        engine.updatePhysics();
+        Manifold contact = engine.getContacts().get(Pair.key(ground, box));
+        assertNotNull(contact);
+        assertTrue(contact.getAccumulatedImpulse() > 0);
+
+        engine.updatePhysics();
+        assertSame(contact, engine.getContacts().get(Pair.key(ground, box)));
+
+        box.setPosition(new Vector2(500, 0));
+        engine.updatePhysics();
+        assertNull(engine.getContacts().get(Pair.key(ground, box)));
+        assertEquals(0, engine.getContacts().size());
+    }
+
+    @Test
+    void testStackComesToRest() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 400, 40);
+        ground.setStatic();
+        scene.add(ground);
+        ArrayList<Entity> stack = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Entity box = Entity.createBox(new Vector2(180, 360 - 40 * i), 0.2, 1, 40, 40);
+            stack.add(box);
+            scene.add(box);
+        }
+        PhysicsEngine engine = new PhysicsEngine(scene);
+
+        for (int i = 0; i < 600; i++) {
+            engine.updatePhysics();
+        }
+        assertEquals((int) PhysicsEngine.ITERATIONS, engine.getIterationsUsed());
+
+        // the stack neither sinks through itself nor keeps bouncing
+        for (int i = 0; i < stack.size(); i++) {
+            Entity box = stack.get(i);
+            assertEquals(360 - 40 * i, box.getPosition().getComponentY(), 1.0);
+            assertEquals(180, box.getPosition().getComponentX(), 0.001);
+            assertEquals(0, box.getVelocity().getComponentY(), 0.5);
+            assertTrue(box.isSleeping());
+        }
+    }
+
+    @Test
+    void testRestingIslandSleeps() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 400, 40);
+        ground.setStatic();
+        Entity bottom = Entity.createBox(new Vector2(100, 360), 0.2, 1, 40, 40);
+        Entity top = Entity.createBox(new Vector2(100, 320), 0.2, 1, 40, 40);
+        scene.add(ground);
+        scene.add(bottom);
+        scene.add(top);
+        PhysicsEngine engine = new PhysicsEngine(scene);
+
+        for (int i = 0; i < PhysicsEngine.SLEEP_STEPS - 1; i++) {
+            engine.updatePhysics();
+        }
+        assertTrue(bottom.isAwake());
+        for (int i = 0; i < 60; i++) {
+            engine.updatePhysics();
+        }
+        assertTrue(bottom.isSleeping());
+        assertTrue(top.isSleeping());
+
+        // sleeping entities stay put and are left out of collisions with the floor
+        Vector2 position = top.getPosition();
+        engine.updatePhysics();
+        assertTrue(Vector2.equals(top.getPosition(), position));
+        assertEquals(engine.getContacts().size(), 0);
+    }
+
+    @Test
+    void testFallingEntityWakesIsland() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 400, 40);
+        ground.setStatic();
+        Entity bottom = Entity.createBox(new Vector2(100, 360), 0.2, 1, 40, 40);
+        Entity top = Entity.createBox(new Vector2(100, 320), 0.2, 1, 40, 40);
+        Entity apart = Entity.createBox(new Vector2(300, 360), 0.2, 1, 40, 40);
+        scene.add(ground);
+        scene.add(bottom);
+        scene.add(top);
+        scene.add(apart);
+        PhysicsEngine engine = new PhysicsEngine(scene);
+        for (int i = 0; i < 120; i++) {
+            engine.updatePhysics();
+        }
+        assertTrue(bottom.isSleeping());
+        assertTrue(apart.isSleeping());
+
+        Entity falling = Entity.createCircle(new Vector2(110, 280), 0.2, 1, 10);
+        scene.add(falling);
+        boolean woken = false;
+        for (int i = 0; i < 120 && !woken; i++) {
+            engine.updatePhysics();
+            woken = top.isAwake();
+        }
+        assertTrue(woken);
+        assertTrue(bottom.isAwake());
+        assertTrue(apart.isSleeping());
+    }
+
+    @Test
+    void testRemovingEntityWakesWhatTouchedIt() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 400, 40);
+        ground.setStatic();
+        Entity box = Entity.createBox(new Vector2(100, 360), 0.2, 1, 40, 40);
+        Entity other = Entity.createBox(new Vector2(300, 360), 0.2, 1, 40, 40);
+        scene.add(ground);
+        scene.add(box);
+        scene.add(other);
+        PhysicsEngine engine = new PhysicsEngine(scene);
+        for (int i = 0; i < 120; i++) {
+            engine.updatePhysics();
+        }
+        assertTrue(box.isSleeping());
+
+        // other was nowhere near box
+        scene.remove(other);
+        engine.updatePhysics();
+        assertTrue(box.isSleeping());
+
+        // but box rested on the ground
+        scene.remove(ground);
+        engine.updatePhysics();
+        assertTrue(box.isAwake());
+    }
+
+    @Test
+    void testRemovingTouchingEntitiesWithEveryBroadPhase() {
+        BroadPhase[] broadPhases = {new BruteForceBroadPhase(), new SweepAndPrune(), new SpatialHashGrid(),
+                new DynamicAabbTree(), new AdaptiveBroadPhase()};
+        for (BroadPhase broadPhase : broadPhases) {
+            ArrayList<Entity> scene = new ArrayList<>();
+            Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 400, 40);
+            ground.setStatic();
+            Entity left = Entity.createBox(new Vector2(100, 360), 0.2, 1, 40, 40);
+            Entity right = Entity.createBox(new Vector2(140, 360), 0.2, 1, 40, 40);
+            Entity top = Entity.createBox(new Vector2(100, 320), 0.2, 1, 40, 40);
+            Entity far = Entity.createBox(new Vector2(300, 360), 0.2, 1, 40, 40);
+            scene.add(ground);
+            scene.add(left);
+            scene.add(right);
+            scene.add(top);
+            scene.add(far);
+            PhysicsEngine engine = new PhysicsEngine(scene, broadPhase);
+            for (int i = 0; i < 120; i++) {
+                engine.updatePhysics();
+            }
+            assertTrue(top.isSleeping());
+
+            // two touching boxes leave in the same step
+            scene.remove(left);
+            scene.remove(right);
+            engine.updatePhysics();
+            assertEquals(3, broadPhase.size());
+            assertTrue(top.isAwake());
+            assertTrue(far.isSleeping());
+        }
+    }
+
+    @Test
+    void testIslandSolverMatchesSequential() {
+        ArrayList<Entity> sequential = createPiles();
+        ArrayList<Entity> parallel = createPiles();
+        PhysicsEngine sequentialEngine = new PhysicsEngine(sequential);
+        PhysicsEngine parallelEngine = new PhysicsEngine(parallel);
+        parallelEngine.setSolverMode(SolverMode.ISLANDS);
+        parallelEngine.setSolverPool(new ForkJoinPool(4));
+        assertEquals(sequentialEngine.getSolverMode(), SolverMode.SEQUENTIAL);
+        assertEquals(parallelEngine.getSolverMode(), SolverMode.ISLANDS);
+
+        for (int step = 0; step < 120; step++) {
+            sequentialEngine.updatePhysics();
+            parallelEngine.updatePhysics();
+        }
+
+        for (int i = 0; i < sequential.size(); i++) {
+            assertTrue(Vector2.equals(sequential.get(i).getPosition(), parallel.get(i).getPosition()));
+            assertTrue(Vector2.equals(sequential.get(i).getVelocity(), parallel.get(i).getVelocity()));
+        }
+    }
+
+    @Test
+    void testColoredSolverOnOnePile() {
+        ArrayList<Entity> single = createPyramid();
+        ArrayList<Entity> parallel = createPyramid();
+        PhysicsEngine singleEngine = new PhysicsEngine(single);
+        PhysicsEngine parallelEngine = new PhysicsEngine(parallel);
+        singleEngine.setSolverMode(SolverMode.COLORED);
+        singleEngine.setSolverPool(new ForkJoinPool(1));
+        parallelEngine.setSolverMode(SolverMode.COLORED);
+        parallelEngine.setSolverPool(new ForkJoinPool(4));
+
+        for (int step = 0; step < 300; step++) {
+            singleEngine.updatePhysics();
+            parallelEngine.updatePhysics();
+        }
+
+        // the result does not depend on the number of threads, and the pile stays up
+        for (int i = 0; i < single.size(); i++) {
+            assertTrue(Vector2.equals(single.get(i).getPosition(), parallel.get(i).getPosition()));
+            assertTrue(Vector2.equals(single.get(i).getVelocity(), parallel.get(i).getVelocity()));
+        }
+        Entity top = single.get(single.size() - 1);
+        assertEquals(top.getPosition().getComponentY(), 360 - 19 * 40, 20);
+    }
+
+    @Test
+    void testParallelNarrowPhaseMatchesSerial() {
+        ArrayList<Entity> serial = createCrowd();
+        ArrayList<Entity> parallel = createCrowd();
+        PhysicsEngine serialEngine = new PhysicsEngine(serial);
+        PhysicsEngine parallelEngine = new PhysicsEngine(parallel);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        parallelEngine.setNarrowPhaseExecutor(executor);
+
+        for (int step = 0; step < 60; step++) {
+            serialEngine.updatePhysics();
+            parallelEngine.updatePhysics();
+        }
+        executor.shutdown();
+
+        for (int i = 0; i < serial.size(); i++) {
+            assertTrue(Vector2.equals(serial.get(i).getPosition(), parallel.get(i).getPosition()));
+            assertTrue(Vector2.equals(serial.get(i).getVelocity(), parallel.get(i).getVelocity()));
+        }
+    }
+
+    @Test
+    void testVectorizedMatchesScalar() {
+        ArrayList<Entity> scalar = createCrowd();
+        ArrayList<Entity> vectorized = createCrowd();
+        PhysicsEngine scalarEngine = new PhysicsEngine(scalar);
+        PhysicsEngine vectorizedEngine = new PhysicsEngine(vectorized);
+        vectorizedEngine.setVectorized(true);
+        assertFalse(scalarEngine.isVectorized());
+
+        for (int step = 0; step < 60; step++) {
+            scalarEngine.updatePhysics();
+            vectorizedEngine.updatePhysics();
+        }
+
+        for (int i = 0; i < scalar.size(); i++) {
+            assertTrue(Vector2.equals(scalar.get(i).getPosition(), vectorized.get(i).getPosition()));
+            assertTrue(Vector2.equals(scalar.get(i).getVelocity(), vectorized.get(i).getVelocity()));
+        }
+    }
+
+    @Test
+    void testDirectStoreMatchesHeap() {
+        ArrayList<Entity> heap = createPiles();
+        ArrayList<Entity> direct = createPiles();
+        PhysicsEngine heapEngine = new PhysicsEngine(heap);
+        PhysicsEngine directEngine = new PhysicsEngine(direct, new SweepAndPrune(), new DirectEntityStore());
+
+        for (int step = 0; step < 120; step++) {
+            heapEngine.updatePhysics();
+            directEngine.updatePhysics();
+        }
+
+        assertTrue(directEngine.getStore() instanceof DirectEntityStore);
+        assertEquals(directEngine.getStore().size(), direct.size());
+        for (int i = 0; i < heap.size(); i++) {
+            assertTrue(Vector2.equals(heap.get(i).getPosition(), direct.get(i).getPosition()));
+            assertTrue(Vector2.equals(heap.get(i).getVelocity(), direct.get(i).getVelocity()));
+        }
+    }
+
+    @Test
+    void testManifoldsAreRecycled() {
+        ArrayList<Entity> scene = createCrowd();
+        PhysicsEngine engine = new PhysicsEngine(scene);
+        for (int step = 0; step < 60; step++) {
+            engine.updatePhysics();
+        }
+        ManifoldPool pool = engine.getContacts().getPool();
+        int created = pool.getCreated();
+
+        // the crowd keeps making and breaking contacts below its first peak, all from the pool
+        for (int step = 0; step < 120; step++) {
+            engine.updatePhysics();
+            assertEquals(pool.getCreated(), created);
+        }
+        assertTrue(pool.getFreeCount() > 0);
+        assertEquals(pool.getCreated(), engine.getContacts().size() + pool.getFreeCount());
+    }
+
+    @Test
+    void testFastCircleDoesNotTunnel() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity floor = Entity.createBox(new Vector2(0, 400), 1, 1, 800, 10);
+        floor.setStatic();
+        scene.add(floor);
+        Entity bullet = Entity.createCircle(new Vector2(100, 300), 0.5, 1, 2);
+        bullet.setVelocity(new Vector2(0, 1500));
+        scene.add(bullet);
+        PhysicsEngine engine = new PhysicsEngine(scene);
+
+        // 25 pixels a step against a 10 pixel floor, the bullet bounces instead of passing through
+        for (int step = 0; step < 30; step++) {
+            engine.updatePhysics();
+            assertTrue(bullet.getMaxY() <= 400);
+        }
+        assertTrue(bullet.getVelocityY() < 0);
+    }
+
+    @Test
+    void testFastCircleMovesOnlyTheRestOfTheStep() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity floor = Entity.createBox(new Vector2(0, 400), 1, 1, 800, 10);
+        floor.setStatic();
+        scene.add(floor);
+        Entity bullet = Entity.createCircle(new Vector2(100, 300), 1, 1, 2);
+        bullet.setVelocity(new Vector2(0, 6000));
+        scene.add(bullet);
+        PhysicsEngine engine = new PhysicsEngine(scene);
+
+        // 96 pixels above the floor and about 100 a step, so it bounces back up what is left
+        engine.updatePhysics();
+        double move = -bullet.getVelocityY() * PhysicsEngine.DT;
+        assertEquals(400 - (move - 96), bullet.getMaxY(), 1e-9);
+        assertEquals(100, bullet.getPositionX());
+    }
+
+    @Test
+    void testAdaptiveTimestep() {
+        PhysicsEngine calm = new PhysicsEngine(createPyramid());
+        assertEquals(calm.getStepSize(), PhysicsEngine.DT);
+        assertNull(calm.getTimestep());
+        for (int step = 0; step < 300; step++) {
+            calm.updatePhysics();
+        }
+        calm.setTimestep(new AdaptiveTimestep());
+        assertEquals(calm.getStepSize(), PhysicsEngine.DT * 2);
+
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity floor = Entity.createBox(new Vector2(0, 400), 1, 1, 800, 10);
+        floor.setStatic();
+        scene.add(floor);
+        Entity bullet = Entity.createCircle(new Vector2(100, 0), 1, 1, 2);
+        bullet.setVelocity(new Vector2(0, 1500));
+        scene.add(bullet);
+        PhysicsEngine violent = new PhysicsEngine(scene);
+        violent.setTimestep(new AdaptiveTimestep());
+
+        // one second of each, the resting pile in fewer steps than at DT, the bullet in more
+        assertTrue(simulate(calm, 1) < 60);
+        assertTrue(simulate(violent, 1) > 60);
+        assertTrue(bullet.getMaxY() <= 400);
+
+        violent.setTimestep(null);
+        assertEquals(violent.getStepSize(), PhysicsEngine.DT);
+    }
+
+    // MODIFIES: engine
+    // EFFECTS: steps engine until seconds have passed, the way the main loop does, and returns
+    //          the number of steps taken
+    private int simulate(PhysicsEngine engine, double seconds) {
+        int steps = 0;
+        double step = engine.getStepSize();
+        while (seconds >= step) {
+            engine.updatePhysics();
+            seconds -= step;
+            step = engine.getStepSize();
+            steps++;
+        }
+        return steps;
+    }
+
+    @Test
+    void testSolverConvergence() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 2000, 40);
+        ground.setStatic();
+        scene.add(ground);
+        for (int i = 0; i < 10; i++) {
+            scene.add(Entity.createBox(new Vector2(100 + i * 50, 361), 0.2, 1, 40, 40));
+        }
+        PhysicsEngine engine = new PhysicsEngine(scene);
+        assertEquals(engine.getConvergenceTolerance(), 0);
+        engine.updatePhysics();
+        assertEquals(engine.getIterationsUsed(), PhysicsEngine.ITERATIONS);
+
+        // boxes resting side by side settle in the fewest iterations allowed
+        engine.setConvergence(0.01, 2, 10);
+        assertEquals(engine.getMinIterations(), 2);
+        assertEquals(engine.getMaxIterations(), 10);
+        for (int step = 0; step < 10; step++) {
+            engine.updatePhysics();
+            assertEquals(engine.getIterationsUsed(), 2);
+        }
+
+        // a tall pile needs every iteration it is allowed
+        PhysicsEngine pile = new PhysicsEngine(createPyramid());
+        pile.setConvergence(0.01, 2, 6);
+        int most = 0;
+        for (int step = 0; step < 10; step++) {
+            pile.updatePhysics();
+            assertTrue(pile.getIterationsUsed() >= 2 && pile.getIterationsUsed() <= 6);
+            most = Math.max(most, pile.getIterationsUsed());
+        }
+        assertEquals(most, 6);
+    }
+
+    @Test
+    void testIslandSolverReportsIterations() {
+        PhysicsEngine engine = new PhysicsEngine(createPiles());
+        engine.setSolverMode(SolverMode.ISLANDS);
+        engine.setConvergence(0.01, 3, 10);
+        for (int step = 0; step < 30; step++) {
+            engine.updatePhysics();
+            assertTrue(engine.getIterationsUsed() >= 3 && engine.getIterationsUsed() <= 10);
+        }
+    }
+
+    @Test
+    void testSteadyStepDoesNotAllocate() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 2000, 40);
+        ground.setStatic();
+        scene.add(ground);
+        for (int i = 0; i < 40; i++) {
+            scene.add(Entity.createBox(new Vector2(i * 45, 361), 0.2, 1, 40, 40));
+            scene.add(Entity.createCircle(new Vector2(i * 45 + 10, 342), 0.2, 1, 10));
+        }
+        PhysicsEngine engine = new PhysicsEngine(scene);
+        for (int step = 0; step < 5; step++) {
+            engine.updatePhysics();
+        }
+
+        // the scene is still settling, so every stage of the step runs
+        assertEquals(0, allocatedBytes(engine, 10));
+        assertTrue(scene.get(1).isAwake());
+
+        for (int step = 0; step < 600 && !scene.get(1).isSleeping(); step++) {
+            engine.updatePhysics();
+        }
+        assertTrue(scene.get(1).isSleeping());
+        // the step after falling asleep returns every manifold to the pool, growing it once
+        for (int step = 0; step < 5; step++) {
+            engine.updatePhysics();
+        }
+        assertEquals(0, allocatedBytes(engine, 10));
+        assertTrue(scene.get(1).isSleeping());
+    }
+
+    // MODIFIES: engine
+    // EFFECTS: steps engine steps times and returns the bytes the calling thread allocated meanwhile
+    private long allocatedBytes(PhysicsEngine engine, int steps) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int step = 0; step < steps; step++) {
+            engine.updatePhysics();
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    // EFFECTS: returns a floor with a crowd of overlapping circles above it
+    private ArrayList<Entity> createCrowd() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 800), 1, 1, 800, 40);
+        ground.setStatic();
+        scene.add(ground);
+        Random random = new Random(7);
+        for (int i = 0; i < 1500; i++) {
+            scene.add(Entity.createCircle(new Vector2(random.nextInt(780), random.nextInt(780)), 0.5, 1, 10));
+        }
+        return scene;
+    }
+
+    // EFFECTS: returns a floor with one pyramid of boxes, 20 boxes wide at the bottom, resting on it
+    private ArrayList<Entity> createPyramid() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 2000, 40);
+        ground.setStatic();
+        scene.add(ground);
+        for (int row = 0; row < 20; row++) {
+            for (int i = 0; i < 20 - row; i++) {
+                scene.add(Entity.createBox(new Vector2(100 + row * 20 + i * 40, 360 - row * 40), 0.2, 1, 40, 40));
+            }
+        }
+        return scene;
+    }
+
+    // EFFECTS: returns a floor with 80 separate piles of boxes falling onto it
+    private ArrayList<Entity> createPiles() {
+        ArrayList<Entity> scene = new ArrayList<>();
+        Entity ground = Entity.createBox(new Vector2(0, 400), 1, 1, 8000, 40);
+        ground.setStatic();
+        scene.add(ground);
+        for (int pile = 0; pile < 80; pile++) {
+            for (int i = 0; i < 8; i++) {
+                scene.add(Entity.createBox(new Vector2(pile * 100 + i % 3, 350 - 42 * i), 0.2, 1, 40, 40));
+            }
+        }
+        return scene;
+    }
 
 }
@@ -0,0 +1,84 @@
+package model;
+
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SleepingIslandsTest {
+
+    SleepingIslands sleepers;
+    List<Entity> first;
+    List<Entity> second;
+
+    @BeforeEach
+    void runBefore() {
+        sleepers = new SleepingIslands();
+        first = createIsland(3);
+        second = createIsland(2);
+    }
+
+    @Test
+    void testWakingOneWakesItsIslandOnly() {
+        sleepers.sleep(first);
+        sleepers.sleep(second);
+        for (Entity entity : first) {
+            assertTrue(entity.isSleeping());
+            assertFalse(entity.isAwake());
+        }
+
+        first.get(1).wake();
+        for (Entity entity : first) {
+            assertTrue(entity.isAwake());
+        }
+        for (Entity entity : second) {
+            assertTrue(entity.isSleeping());
+        }
+        assertEquals(5, sleepers.size());
+
+        // waking the last island frees its room at the end
+        second.get(0).wake();
+        assertTrue(second.get(1).isAwake());
+        assertEquals(3, sleepers.size());
+    }
+
+    @Test
+    void testPackingKeepsIslands() {
+        Entity single = Entity.createCircle(new Vector2(), 1, 1, 2);
+        sleepers.sleep(first);
+        sleepers.sleep(single);
+        first.get(0).wake();
+
+        // filling the array packs the sleeping single to the front rather than growing it
+        for (int i = 0; i < 20; i++) {
+            List<Entity> island = createIsland(3);
+            sleepers.sleep(island);
+            island.get(2).wake();
+        }
+        assertTrue(single.isSleeping());
+        assertTrue(sleepers.size() <= 16);
+
+        sleepers.sleep(second);
+        single.wake();
+        assertTrue(single.isAwake());
+        for (Entity entity : second) {
+            assertTrue(entity.isSleeping());
+        }
+        second.get(1).wake();
+        assertTrue(second.get(0).isAwake());
+    }
+
+    // EFFECTS: returns count awake boxes
+    private List<Entity> createIsland(int count) {
+        List<Entity> island = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            island.add(Entity.createBox(new Vector2(i * 10, 0), 1, 1, 2, 2));
+        }
+        return island;
+    }
+
+}
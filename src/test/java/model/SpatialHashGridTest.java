@@ -0,0 +1,176 @@
+package model;
+
+import model.broadphase.SpatialHashGrid;
+import model.helpers.Pair;
+import model.helpers.PairBuffer;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpatialHashGridTest {
+
+    SpatialHashGrid grid;
+    Entity boxA, boxB, circleA, boxFar, floor, staticBox;
+
+    @BeforeEach
+    void runBefore() {
+        grid = new SpatialHashGrid(4);
+        boxA = Entity.createBox(new Vector2(0, 0), 1, 1, 2, 2);
+        boxB = Entity.createBox(new Vector2(1, 1), 1, 1, 2, 2);
+        circleA = Entity.createCircle(new Vector2(1, 5), 1, 1, 1);
+        boxFar = Entity.createBox(new Vector2(100, 0), 1, 1, 2, 2);
+        floor = Entity.createBox(new Vector2(-50, 10), 1, 1, 200, 2);
+        staticBox = Entity.createBox(new Vector2(0, 9), 1, 1, 4, 4);
+        floor.setStatic();
+        staticBox.setStatic();
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(grid.getCellSize(), 4);
+        assertEquals(new SpatialHashGrid().getCellSize(), SpatialHashGrid.DEFAULT_CELL_SIZE);
+        assertEquals(grid.size(), 0);
+    }
+
+    @Test
+    void testFindPairsOverlapping() {
+        grid.add(boxA);
+        grid.add(boxB);
+        grid.add(boxFar);
+        grid.add(circleA);
+
+        List<Pair> pairs = findPairs();
+        assertEquals(pairs.size(), 1);
+        assertTrue(pairs.contains(new Pair(boxA, boxB)));
+    }
+
+    @Test
+    void testFindPairsAcrossManyCells() {
+        Entity wideA = Entity.createBox(new Vector2(-10, 0), 1, 1, 40, 40);
+        Entity wideB = Entity.createBox(new Vector2(-5, 5), 1, 1, 40, 40);
+        grid.add(wideA);
+        grid.add(wideB);
+
+        // the two boxes share dozens of cells but are reported once
+        List<Pair> pairs = findPairs();
+        assertEquals(pairs.size(), 1);
+        assertTrue(pairs.contains(new Pair(wideA, wideB)));
+    }
+
+    @Test
+    void testFindPairsSkipsStaticPairs() {
+        grid.add(floor);
+        grid.add(staticBox);
+        assertTrue(findPairs().isEmpty());
+
+        Entity falling = Entity.createCircle(new Vector2(1, 8), 1, 1, 1.5);
+        grid.add(falling);
+        List<Pair> pairs = findPairs();
+        assertEquals(pairs.size(), 2);
+        assertTrue(pairs.contains(new Pair(falling, floor)));
+        assertTrue(pairs.contains(new Pair(falling, staticBox)));
+    }
+
+    @Test
+    void testFindPairsAfterMoving() {
+        grid.add(boxA);
+        grid.add(boxFar);
+        assertTrue(findPairs().isEmpty());
+
+        boxFar.setPosition(new Vector2(-1, 1));
+        assertEquals(findPairs().size(), 1);
+    }
+
+    @Test
+    void testRemove() {
+        grid.add(boxA);
+        grid.add(boxB);
+        grid.remove(boxA);
+        assertEquals(grid.size(), 1);
+        assertTrue(findPairs().isEmpty());
+
+        grid.remove(boxA);
+        assertEquals(grid.size(), 1);
+    }
+
+    @Test
+    void testQueryBox() {
+        grid.add(boxA);
+        grid.add(boxB);
+        grid.add(floor);
+        for (int i = 0; i < 20; i++) {
+            grid.add(Entity.createBox(new Vector2(200 + i * 3, 0), 1, 1, 2, 2));
+        }
+        grid.update();
+
+        // floor covers three cells of the box but is found once
+        List<Entity> found = new ArrayList<>();
+        grid.queryBox(1, 1, 9, 11, found);
+        assertEquals(found.size(), 3);
+        assertTrue(found.containsAll(List.of(boxA, boxB, floor)));
+
+        // a box over more cells than there are entities checks every entity instead
+        found.clear();
+        grid.queryBox(-100, -100, 1000, 1000, found);
+        assertEquals(found.size(), 23);
+    }
+
+    @Test
+    void testQueryBoxAfterRemoveAndAdd() {
+        grid.add(boxA);
+        grid.add(boxB);
+        grid.add(floor);
+        grid.update();
+
+        // until the next update, removed entities are skipped and added ones are not found yet
+        grid.remove(boxA);
+        grid.add(circleA);
+        assertEquals(3, grid.size());
+        List<Entity> found = new ArrayList<>();
+        grid.queryBox(-100, -100, 1000, 1000, found);
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(List.of(boxB, floor)));
+        found.clear();
+        grid.queryBox(1, 1, 9, 11, found);
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(List.of(boxB, floor)));
+
+        grid.update();
+        found.clear();
+        grid.queryBox(-100, -100, 1000, 1000, found);
+        assertEquals(3, found.size());
+        assertTrue(found.containsAll(List.of(boxB, floor, circleA)));
+    }
+
+    @Test
+    void testManyEntities() {
+        for (int i = 0; i < 1000; i++) {
+            grid.add(Entity.createBox(new Vector2(i * 3, (i % 2) * 100), 1, 1, 2, 2));
+        }
+        assertTrue(findPairs().isEmpty());
+
+        for (int i = 0; i < 100; i++) {
+            grid.add(Entity.createBox(new Vector2(i * 10, 500), 1, 1, 15, 2));
+        }
+
+        // each new box only reaches its direct neighbour
+        assertEquals(findPairs().size(), 99);
+    }
+
+    private List<Pair> findPairs() {
+        grid.update();
+        PairBuffer buffer = new PairBuffer();
+        grid.queryPairs(buffer);
+        List<Pair> pairs = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            pairs.add(new Pair(buffer.getEntityA(i), buffer.getEntityB(i)));
+        }
+        return pairs;
+    }
+
+}
@@ -0,0 +1,150 @@
+package model;
+
+import model.broadphase.SweepAndPrune;
+import model.helpers.Pair;
+import model.helpers.PairBuffer;
+import model.helpers.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SweepAndPruneTest {
+
+    SweepAndPrune sweepAndPrune;
+    Entity boxA, boxB, circleA, boxFar, staticA, staticB;
+
+    @BeforeEach
+    void runBefore() {
+        sweepAndPrune = new SweepAndPrune();
+        boxA = Entity.createBox(new Vector2(0, 0), 1, 1, 2, 2);
+        boxB = Entity.createBox(new Vector2(1, 1), 1, 1, 2, 2);
+        circleA = Entity.createCircle(new Vector2(1, 5), 1, 1, 1);
+        boxFar = Entity.createBox(new Vector2(100, 0), 1, 1, 2, 2);
+        staticA = Entity.createBox(new Vector2(0, 10), 1, 1, 50, 2);
+        staticB = Entity.createBox(new Vector2(10, 10), 1, 1, 50, 2);
+        staticA.setStatic();
+        staticB.setStatic();
+    }
+
+    @Test
+    void testFindPairsOverlapping() {
+        sweepAndPrune.add(boxFar);
+        sweepAndPrune.add(boxB);
+        sweepAndPrune.add(boxA);
+
+        List<Pair> pairs = findPairs();
+        assertEquals(pairs.size(), 1);
+        assertTrue(pairs.contains(new Pair(boxA, boxB)));
+    }
+
+    @Test
+    void testQueryBox() {
+        sweepAndPrune.add(boxFar);
+        sweepAndPrune.add(staticA);
+        sweepAndPrune.add(boxB);
+        sweepAndPrune.add(boxA);
+        sweepAndPrune.update();
+
+        List<Entity> found = new ArrayList<>();
+        sweepAndPrune.queryBox(1.5, 1.5, 2.5, 2.5, found);
+        assertEquals(found.size(), 2);
+        assertTrue(found.containsAll(List.of(boxA, boxB)));
+
+        // staticA starts far to the left of the box but reaches into it
+        found.clear();
+        sweepAndPrune.queryBox(30, 9, 40, 11, found);
+        assertEquals(found, List.of(staticA));
+
+        found.clear();
+        sweepAndPrune.queryBox(200, 0, 300, 100, found);
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void testFindPairsSeparatedOnY() {
+        sweepAndPrune.add(boxA);
+        sweepAndPrune.add(circleA);
+
+        assertTrue(findPairs().isEmpty());
+    }
+
+    @Test
+    void testFindPairsSkipsStaticPairs() {
+        sweepAndPrune.add(staticA);
+        sweepAndPrune.add(staticB);
+        assertTrue(findPairs().isEmpty());
+
+        Entity falling = Entity.createCircle(new Vector2(20, 9), 1, 1, 1);
+        sweepAndPrune.add(falling);
+        List<Pair> pairs = findPairs();
+        assertEquals(pairs.size(), 2);
+        assertTrue(pairs.contains(new Pair(falling, staticA)));
+        assertTrue(pairs.contains(new Pair(falling, staticB)));
+    }
+
+    @Test
+    void testFindPairsAfterMoving() {
+        sweepAndPrune.add(boxA);
+        sweepAndPrune.add(boxFar);
+        assertTrue(findPairs().isEmpty());
+
+        boxFar.setPosition(new Vector2(-1, 1));
+        List<Pair> pairs = findPairs();
+        assertEquals(pairs.size(), 1);
+        assertTrue(pairs.contains(new Pair(boxA, boxFar)));
+    }
+
+    @Test
+    void testRemove() {
+        sweepAndPrune.add(boxA);
+        sweepAndPrune.add(boxB);
+        assertEquals(sweepAndPrune.size(), 2);
+
+        sweepAndPrune.remove(boxB);
+        assertEquals(sweepAndPrune.size(), 1);
+        assertTrue(findPairs().isEmpty());
+
+        sweepAndPrune.remove(boxB);
+        assertEquals(sweepAndPrune.size(), 1);
+    }
+
+    @Test
+    void testManyEntities() {
+        for (int i = 0; i < 100; i++) {
+            sweepAndPrune.add(Entity.createBox(new Vector2((100 - i) * 10, 0), 1, 1, 15, 2));
+        }
+
+        // each box only reaches its direct neighbour
+        assertEquals(findPairs().size(), 99);
+    }
+
+    private List<Pair> findPairs() {
+        sweepAndPrune.update();
+        PairBuffer buffer = new PairBuffer();
+        sweepAndPrune.queryPairs(buffer);
+        List<Pair> pairs = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            pairs.add(new Pair(buffer.getEntityA(i), buffer.getEntityB(i)));
+        }
+        return pairs;
+    }
+
+    @Test
+    void testFindPairsSkipsSleepingPairs() {
+        ArrayList<Entity> island = new ArrayList<>();
+        island.add(boxA);
+        island.add(boxB);
+        new SleepingIslands().sleep(island);
+        sweepAndPrune.add(boxA);
+        sweepAndPrune.add(boxB);
+        assertTrue(findPairs().isEmpty());
+
+        boxA.wake();
+        assertEquals(findPairs().size(), 1);
+    }
+
+}
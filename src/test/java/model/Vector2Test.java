@@ -104,4 +104,32 @@ public class Vector2Test {
         assertEquals(c.toString(), "X: 2.0, Y: 2.0");
     }
 
+    @Test
+    void testOutParameters() {
+        Vector2 out = new Vector2();
+        assertSame(Vector2.add(a, b, out), out);
+        assertTrue(Vector2.equals(out, c));
+        assertSame(Vector2.subtract(c, a, out), out);
+        assertTrue(Vector2.equals(out, b));
+        assertSame(Vector2.scale(c, 0.5, out), out);
+        assertTrue(Vector2.equals(out, new Vector2(1, 1)));
+    }
+
+    @Test
+    void testInPlace() {
+        Vector2 v = new Vector2();
+        assertSame(v.set(1, 2), v);
+        assertTrue(Vector2.equals(v, new Vector2(1, 2)));
+        assertTrue(Vector2.equals(v.set(c), c));
+        assertTrue(Vector2.equals(v.addLocal(a), new Vector2(2, 4)));
+        assertTrue(Vector2.equals(v.subtractLocal(b), new Vector2(0, 4)));
+        assertTrue(Vector2.equals(v.scaleLocal(0.5), a));
+        assertTrue(Vector2.equals(v.scaleAndAddLocal(b, 2), new Vector2(4, 2)));
+        assertTrue(Vector2.equals(v.set(3, 4).normalizeLocal(), new Vector2(0.6, 0.8)));
+        assertTrue(Vector2.equals(zero.normalizeLocal(), new Vector2()));
+
+        // the operand is left alone
+        assertTrue(Vector2.equals(b, new Vector2(2, 0)));
+    }
+
 }